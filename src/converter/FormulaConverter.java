@@ -26,26 +26,17 @@ public class FormulaConverter {
 
         this.setRoot(phi);
 
-        /* the stack and the queue will contain by construction only OperatorFormula's */
-        Stack<Formula> stack = new Stack<>();
-        Queue<Formula> queue = new LinkedList<>();
-        /* if phi is an OperatorFormula then initialize the queue with it */
-        if(phi instanceof OperatorFormula) queue.add(phi);
-
-        while(!queue.isEmpty()) {
-            OperatorFormula f = (OperatorFormula) queue.remove();
-            if(f.getOperator().isDerived()) stack.push(f);
-            if(f instanceof UnaryFormula uf) {
-                if(uf.getOperand() instanceof OperatorFormula) queue.add(uf.getOperand());
-            }
-            if(f instanceof BinaryFormula bf) {
-                if(bf.getLoperand() instanceof OperatorFormula) queue.add(bf.getLoperand());
-                if(bf.getRoperand() instanceof OperatorFormula) queue.add(bf.getRoperand());
-            }
-        }
+        /* the derived operators are pushed in BFS order,
+         * hence they are rewritten from the deepest ones */
+        ArrayDeque<OperatorFormula> stack = new ArrayDeque<>();
+        FormulaTraversal.levelOrder(phi, f -> {
+            if(!(f instanceof OperatorFormula of)) return false;
+            if(of.getOperator().isDerived()) stack.push(of);
+            return true;
+        });
 
         while(!stack.isEmpty()) {
-            OperatorFormula f = (OperatorFormula) stack.pop();
+            OperatorFormula f = stack.pop();
             if(f instanceof UnaryFormula uf) updateRoot(
                     f.replaceFormula(applyUnaryRule(uf))
             );
@@ -91,23 +82,13 @@ public class FormulaConverter {
     public Formula backConversion(Formula phi) {
         this.setRoot(phi);
 
-        /* the stack and the queue will contain by construction only OperatorFormulae */
-        Stack<Formula> stack = new Stack<>();
-        Queue<Formula> queue = new LinkedList<>();
-        /* if phi is an OperatorFormula then initialize the queue with it */
-        if(phi instanceof OperatorFormula) queue.add(phi);
-
-        while(!queue.isEmpty()) {
-            OperatorFormula f = (OperatorFormula) queue.remove();
+        /* the stack will contain by construction only OperatorFormulae, in BFS order */
+        ArrayDeque<Formula> stack = new ArrayDeque<>();
+        FormulaTraversal.levelOrder(phi, f -> {
+            if(!(f instanceof OperatorFormula)) return false;
             stack.push(f);
-            if(f instanceof UnaryFormula uf) {
-                if(uf.getOperand() instanceof OperatorFormula) queue.add(uf.getOperand());
-            }
-            if(f instanceof BinaryFormula bf) {
-                if(bf.getLoperand() instanceof OperatorFormula) queue.add(bf.getLoperand());
-                if(bf.getRoperand() instanceof OperatorFormula) queue.add(bf.getRoperand());
-            }
-        }
+            return true;
+        });
 
         while (!stack.isEmpty()) {
             Formula f = stack.pop();
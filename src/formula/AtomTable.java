@@ -0,0 +1,77 @@
+package formula;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The AtomTable class is the global symbol table of the atom names.
+ * Each distinct name is interned once and is given a dense integer id, starting from zero,
+ * hence two interned atoms have the same name if, and only if, they have the same id.
+ * The ids of the atom constants are fixed: TRUE_ID for "true" and FALSE_ID for "false".
+ * The names are never freed, since the formulae keep their ids, hence the table is bounded by CAPACITY,
+ * so that the long running processes, as the server and the batch pipeline, do not grow with the names
+ * of the formulae they have separated: once the table is full, the new names are not interned,
+ * their id is NO_ID and their atoms are compared by their names.
+ * The table is safe to be used by concurrent threads.
+ * @see AtomicFormula#getId() */
+public final class AtomTable {
+
+    /** The id of the atom constant TRUE */
+    public static final int TRUE_ID = 0;
+
+    /** The id of the atom constant FALSE */
+    public static final int FALSE_ID = 1;
+
+    /** The id of the names which are not interned, since the table is full */
+    public static final int NO_ID = -1;
+
+    /** The number of the names which are interned at most */
+    public static final int CAPACITY = 1 << 16;
+
+    private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+
+    /** The interned names indexed by their id, replaced by a larger copy when full */
+    private static volatile String[] names = new String[64];
+
+    private static int size;
+
+    static {
+        intern(AtomConstant.TRUE.getImage());
+        intern(AtomConstant.FALSE.getImage());
+    }
+
+    private AtomTable() {}
+
+    /** @return Returns the id of the atom name, interning it if it is new, NO_ID if it is new and the table is full */
+    public static int intern(String name) {
+        Integer id = ids.get(name);
+        if(id != null) return id;
+        synchronized (AtomTable.class) {
+            id = ids.get(name);
+            if(id != null) return id;
+            if(size == CAPACITY) return NO_ID;
+            String[] n = names;
+            if(size == n.length) n = Arrays.copyOf(n, 2 * n.length);
+            n[size] = name;
+            /* the name is published before its id */
+            names = n;
+            ids.put(name, size);
+            return size++;
+        }
+    }
+
+    /** @return Returns the id of the atom constant c */
+    public static int id(AtomConstant c) {
+        return c == AtomConstant.TRUE ? TRUE_ID : FALSE_ID;
+    }
+
+    /** @return Returns the interned name of the atom whose id is id */
+    public static String name(int id) {
+        return names[id];
+    }
+
+    /** @return Returns the number of interned names */
+    public static int size() {
+        return ids.size();
+    }
+
+}
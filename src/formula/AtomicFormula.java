@@ -1,14 +1,20 @@
 package formula;
 
-import static formula.AtomConstant.*;
+import java.util.List;
 import static formula.TimeConstant.*;
 
-/** The AtomicFormula class represents an atomic LTL formula. */
+/** The AtomicFormula class represents an atomic LTL formula.
+ * The image of the formula is interned in the AtomTable,
+ * so that two atoms are compared by their ids, and by their images when the table is full.
+ * @see AtomTable */
 public class AtomicFormula extends Formula {
 
-    /** String image of the formula */
+    /** String image of the formula, interned in the AtomTable */
     private String image;
 
+    /** The id of the image inside the AtomTable, NO_ID if it is not interned */
+    private int id;
+
     /* Initialization block:
      * atomic formulae are always present and separated */
     {
@@ -20,57 +26,97 @@ public class AtomicFormula extends Formula {
      * @see AtomConstant */
     public AtomicFormula(AtomConstant c) {
         super();
-        this.image = c.getImage();
+        this.setSymbol(AtomTable.id(c));
     }
 
     /** Initializes a newly created AtomicFormula from an AtomConstant and a formula which will be its parent.
      * @see AtomConstant */
     public AtomicFormula(AtomConstant c, OperatorFormula p) {
         super(p);
-        this.image = c.getImage();
+        this.setSymbol(AtomTable.id(c));
     }
 
     /** Returns an AtomicFormula created from a string image. */
     public AtomicFormula(String img) {
         super();
-        this.image = img;
+        this.setSymbol(img);
     }
 
     /** Initializes a newly created AtomicFormula from a string image and a formula which will be its parent. */
     public AtomicFormula(String img, OperatorFormula p) {
         super(p);
-        this.image = img;
+        this.setSymbol(img);
+    }
+
+    /** Returns an AtomicFormula whose image has id id inside the AtomTable. */
+    public AtomicFormula(int id) {
+        super();
+        this.setSymbol(id);
     }
 
     /** Sets the image of the formula. */
-    public void setImage(String img) { this.image = img; }
+    public void setImage(String img) {
+        this.setSymbol(img);
+        this.invalidateCaches();
+    }
+
+    /** A constructor subroutine. */
+    private void setSymbol(int id) {
+        this.id = id;
+        this.image = AtomTable.name(id);
+    }
+
+    /** A constructor and setImage subroutine. */
+    private void setSymbol(String img) {
+        this.id = AtomTable.intern(img);
+        this.image = id != AtomTable.NO_ID ? AtomTable.name(id) : img;
+    }
 
     /** @return Returns the image of the formula */
     public String getImage() { return image; }
 
+    /** @return Returns the id of the image of the formula inside the AtomTable, NO_ID if it is not interned */
+    public int getId() { return id; }
+
     @Override
     public String toString() { return image; }
 
     /** @return Returns a deep copy of the formula */
     public AtomicFormula deepCopy() {
-        return new AtomicFormula(this.getImage());
+        return id != AtomTable.NO_ID ? new AtomicFormula(id) : new AtomicFormula(image);
+    }
+
+    protected boolean equalTop(Formula f) {
+        return f instanceof AtomicFormula af && af.id == this.id && (id != AtomTable.NO_ID || af.image.equals(image));
     }
 
-    public boolean equalTo(Formula f) {return this.image.equals(f.getImage()); }
+    public int getArity() { return 0; }
+
+    public Formula getOperand(int i) {
+        throw new IndexOutOfBoundsException("An atomic formula has no operands");
+    }
+
+    protected String format(List<String> operands) { return image; }
+
+    protected AtomicFormula copy(List<Formula> os) { return this.deepCopy(); }
+
+    protected PathMetrics computePathMetrics() { return PathMetrics.atomic(); }
+
+    protected int computeStructuralHash() { return mix(image.hashCode()); }
 
     /** @return Returns true if, and only if, the formula represents the atomic "true" formula */
     public boolean isTrue(){
-        return image.equals(TRUE.getImage());
+        return id == AtomTable.TRUE_ID;
     }
 
     /** @return Returns true if, and only if, the formula represents the atomic "false" formula */
-    public boolean isFalse() { return image.equals(FALSE.getImage()); }
+    public boolean isFalse() { return id == AtomTable.FALSE_ID; }
 
     /** @return Returns true if, and only if, the formula represents a truth value */
     public boolean isTruthValue(){ return this.isTrue() || this.isFalse(); }
 
     public boolean isTruthValue(AtomConstant c) {
-        return this.getImage().equals(c.getImage());
+        return id == AtomTable.id(c);
     }
 
 }
@@ -77,6 +77,10 @@ public class BinaryFormula extends OperatorFormula {
         }
     }
 
+    protected void updateOperatorCounts() {
+        this.countOperators(this.getOperator(), loperand, roperand);
+    }
+
     protected void updateSeparation() {
         boolean leftOperandSeparationValue = false;
         boolean rightOperandSeparationValue = false;
@@ -120,16 +124,27 @@ public class BinaryFormula extends OperatorFormula {
     }
 
 
-    @Override
-    public String toString() {
+    public int getArity() { return 2; }
+
+    public Formula getOperand(int i) {
+        return switch (i) {
+            case 0 -> loperand;
+            case 1 -> roperand;
+            default -> throw new IndexOutOfBoundsException(
+                    String.format("A binary formula has no operand %d", i)
+            );
+        };
+    }
+
+    protected String format(List<String> operands) {
 
-        String leftChild = this.getLoperand().toString();
-        String rightChild = this.getRoperand().toString();
+        String leftChild = operands.get(0);
+        String rightChild = operands.get(1);
         if(this.getLoperand() instanceof OperatorFormula) {
-            leftChild = String.format("(%s)", this.getLoperand().toString());
+            leftChild = String.format("(%s)", leftChild);
         }
         if(this.getRoperand() instanceof OperatorFormula) {
-            rightChild = String.format("(%s)", this.getRoperand().toString());
+            rightChild = String.format("(%s)", rightChild);
         }
 
         if(this.isOperator(UNTIL) || this.isOperator(SINCE)) {
@@ -142,12 +157,10 @@ public class BinaryFormula extends OperatorFormula {
     }
 
     @Override
-    public BinaryFormula deepCopy() {
-        return new BinaryFormula(
-                this.getOperator(),
-                this.loperand.deepCopy(),
-                this.roperand.deepCopy()
-        );
+    public BinaryFormula deepCopy() { return (BinaryFormula) super.deepCopy(); }
+
+    protected BinaryFormula copy(List<Formula> os) {
+        return new BinaryFormula(this.getOperator(), os.get(0), os.get(1));
     }
 
     /** Swaps the two operands of the formula. */
@@ -155,44 +168,52 @@ public class BinaryFormula extends OperatorFormula {
         Formula temp = this.loperand;
         this.loperand = this.roperand;
         this.roperand = temp;
+        FormulaIndex.invalidate(this);
+        this.invalidateCaches();
     }
 
-    public boolean equalTo(Formula f) {
-        if(f instanceof OperatorFormula of) {
-            if(of instanceof BinaryFormula bf){
-                boolean sameOperator = bf.isOperator(this.getOperator());
-                boolean sameLeftOperand = bf.getLoperand().equalTo(this.getLoperand());
-                boolean sameRightOperand = bf.getRoperand().equalTo(this.getRoperand());
-                boolean sameOperands = sameLeftOperand && sameRightOperand;
-                if(this.isOperator(AND) || this.isOperator(OR) || this.isOperator(EQUIV)) {
-                    sameOperands = this.equalCombinations(bf);
-                }
-                return sameOperator && sameOperands;
-            }
+    protected boolean equalTop(Formula f) {
+        if(f instanceof OperatorFormula of && of.isOperator(this.getOperator())) {
+            /* formulae with different structural hashes cannot be equal */
+            if(of.structuralHash() != this.structuralHash()) return false;
+            /* a combination is equal to the n-ary combination of its operands */
+            if(this.isCombination()) return of instanceof BinaryFormula || of instanceof CombinationFormula;
+            return of instanceof BinaryFormula;
         }
         return false;
     }
 
-    private boolean equalCombinations(BinaryFormula f) {
-        ArrayList<Formula> fOperands = f.getCombinationOperands();
-        ArrayList<Formula> tOperands = this.getCombinationOperands();
-        if(fOperands.size() == tOperands.size()) {
-            tOperands.forEach(t -> {
-                for(Formula af : fOperands) {
-                    if(af.equalTo(t)) {
-                        fOperands.remove(af);
-                        break;
-                    }
-                }
-            } );
-            return fOperands.isEmpty();
+    /** @return Returns true if, and only if, the operator of the formula is one of AND, OR, EQUIV,
+     * whose operands are compared regardless of their order */
+    protected boolean isCombination() {
+        return this.isOperator(AND) || this.isOperator(OR) || this.isOperator(EQUIV);
+    }
+
+    protected int computeStructuralHash() {
+        int op = this.getOperator().ordinal();
+        /* the hash of a combination is computed from the sum of the hashes of
+         * its operands, so that it does not depend on their order */
+        if(this.isCombination()) {
+            combinationHash = this.operandContribution(loperand) + this.operandContribution(roperand);
+            return mix(31 * op + combinationHash);
         }
-        return false;
+        return mix(31 * (31 * op + loperand.structuralHash()) + roperand.structuralHash());
+    }
+
+    protected PathMetrics computePathMetrics() {
+        return PathMetrics.binary(this.getOperator(), loperand.getPathMetrics(), roperand.getPathMetrics());
     }
 
     public boolean isNestedInsideMirror() {
         if(this.isOperator(UNTIL) || this.isOperator(Operator.SINCE)){
             Formula nf = this;
+            /* if the formula is labelled the mirror operator is searched
+             * only over the root of the labelled subtree */
+            if(index != null && index.labels(this)) {
+                int mirrorBit = this.isOperator(UNTIL) ? FormulaIndex.SINCE_ANCESTOR : FormulaIndex.UNTIL_ANCESTOR;
+                if((indexAncestors & mirrorBit) != 0) return true;
+                nf = index.getRoot();
+            }
             while(nf!= null && !nf.isOperator(this.getOperator().getMirrorOperator())){
                 nf = nf.getParent();
             }
@@ -231,8 +252,9 @@ public class BinaryFormula extends OperatorFormula {
                 "the list must contain at least two elements"
         );
         Iterator<Formula> itr = fms.iterator();
-        Formula prev = itr.next();
-        while (itr.hasNext()) prev = new BinaryFormula(op, prev.deepCopy(), itr.next().deepCopy());
+        /* each operand is copied once, the partial combination is linked as it is */
+        Formula prev = itr.next().deepCopy();
+        while (itr.hasNext()) prev = new BinaryFormula(op, prev, itr.next().deepCopy());
         return (BinaryFormula) prev;
     }
 
@@ -244,19 +266,23 @@ public class BinaryFormula extends OperatorFormula {
             BinaryFormula nf = q.remove();
             /* if the left operand have the same operator of the root add it to the
              * loop queue else add it to the result array list */
-            if(nf.getLoperand().isOperator(this.getOperator())) {
-                q.add((BinaryFormula) nf.getLoperand());
-            }
-            else al.add(nf.getLoperand());
+            this.addCombinationOperand(q, al, nf.getLoperand());
             /* if the right operand have the same operator of the root add it to the
              * loop queue else add it to the result array list */
-            if(nf.getRoperand().isOperator(this.getOperator())) {
-                q.add((BinaryFormula) nf.getRoperand());
-            }
-            else al.add(nf.getRoperand());
+            this.addCombinationOperand(q, al, nf.getRoperand());
         }
         return al;
     }
 
+    /** A getCombinationOperands subroutine. The operands of a CombinationFormula
+     * with the same operator of the root are added to the result array list at once.
+     * @see #getCombinationOperands() */
+    private void addCombinationOperand(Queue<BinaryFormula> q, ArrayList<Formula> al, Formula o) {
+        if(o instanceof CombinationFormula co && co.isOperator(this.getOperator())) {
+            al.addAll(co.getCombinationOperands());
+        }
+        else if(o.isOperator(this.getOperator())) q.add((BinaryFormula) o);
+        else al.add(o);
+    }
 
 }
@@ -20,10 +20,10 @@ public abstract class BooleanRules {
     public static Formula truthValueNegation(UnaryFormula f) {
         if(f.isOperator(NOT)){
             if(f.getOperand() instanceof AtomicFormula cf){
-                if(cf.getImage().equals(TRUE.getImage())) {
+                if(cf.isTrue()) {
                     return new AtomicFormula(FALSE);
                 }
-                if(cf.getImage().equals(FALSE.getImage())) {
+                if(cf.isFalse()) {
                     return new AtomicFormula(TRUE);
                 }
             }
@@ -111,7 +111,7 @@ public abstract class BooleanRules {
             if(f.getOperand().isOperator(OR) || f.getOperand().isOperator(AND)) {
                 BinaryFormula bf = (BinaryFormula) f.getOperand();
                 assert bf.getOperator().getMirrorOperator() != null;
-                System.out.println("DeMorganLaw");
+                RuleTrace.rule("DeMorganLaw");
                 return new BinaryFormula (
                         bf.getOperator().getMirrorOperator(), // |
                         negate(bf.getLoperand()), // !A
@@ -176,7 +176,7 @@ public abstract class BooleanRules {
                     String.format("The distribution rule can be only applied to formulas that have an AND/OR operator but the formula operator is: %s", f.getOperator())
             );
         }
-        System.out.println("DistributiveLaw");
+        RuleTrace.rule("DistributiveLaw");
         if(f.getRoperand().isOperator(f.getOperator().getMirrorOperator())) return leftDistributiveLaw(f);
         if(f.getLoperand().isOperator(f.getOperator().getMirrorOperator())) return rightDistributiveLaw(f);
         throw new IllegalArgumentException(
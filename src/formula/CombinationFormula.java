@@ -0,0 +1,226 @@
+package formula;
+
+import java.util.*;
+import static formula.Operator.*;
+import static formula.TimeConstant.*;
+
+/** The CombinationFormula class represents a conjunction or a disjunction of any number of operands.
+ * It is the flattened form of a chain of BinaryFormula with the same operator, one of AND, OR:
+ * the operands are kept in an array, hence they are accessed in constant time and
+ * the depth of the combination is one regardless of the number of its operands.
+ * A CombinationFormula is printed as the equivalent left-deep chain of binary formulae.
+ * @see BinaryFormula#newCombination(Operator, Collection) */
+public class CombinationFormula extends OperatorFormula {
+
+    private ArrayList<Formula> operands;
+
+    /** It is true while the operands are linked by the constructor,
+     * so that the formula is updated once instead of once for each operand */
+    private boolean linking;
+
+    /** Initializes a newly created CombinationFormula with operator op and operands fms.
+     * The operands are linked as they are, without being copied.
+     * @param op The operator of the formula, one of AND, OR
+     * @param fms The operands of the formula, at least two */
+    public CombinationFormula(Operator op, Collection<Formula> fms) {
+        super(op);
+        if(!(op == AND || op == OR)) throw new IllegalArgumentException(
+                String.format("The operator must be one of &, | but is %s", op)
+        );
+        if(fms.size() < 2) throw new IndexOutOfBoundsException(
+                "the list must contain at least two elements"
+        );
+        operands = new ArrayList<>(fms.size());
+        linking = true;
+        for(Formula f : fms) {
+            operands.add(f);
+            f.setParent(this);
+        }
+        linking = false;
+        this.updateOperatorCounts();
+        this.updateTime(operands.get(0));
+        this.updateSeparation();
+    }
+
+    /** @return Returns the number of operands of the formula */
+    public int getArity() { return operands.size(); }
+
+    /** @return Returns the i-th operand of the formula */
+    public Formula getOperand(int i) { return operands.get(i); }
+
+    /** @return Returns an unmodifiable view of the operands of the formula */
+    public List<Formula> getOperands() { return Collections.unmodifiableList(operands); }
+
+    /** Sets the i-th operand of the formula and updates the parent of f.
+     * @param i The position of the operand
+     * @param f The formula to be set as i-th operand */
+    public void setOperand(int i, Formula f) {
+        operands.set(i, f);
+        f.setParent(this);
+    }
+
+    /** @return Returns the position of the operand f, -1 if f is not an operand of the formula */
+    public int indexOf(Formula f) {
+        for(int i = 0; i < operands.size(); i++) {
+            if(operands.get(i) == f) return i;
+        }
+        return -1;
+    }
+
+    protected void updateTime(Formula f) {
+        if(linking || operands == null) return;
+        TimeConstant t = operands.get(0).getTime();
+        for(int i = 1; i < operands.size(); i++) {
+            t = determineTime(this.getOperator(), t, operands.get(i).getTime());
+        }
+        this.setTime(t);
+    }
+
+    protected void updateOperatorCounts() {
+        if(linking) return;
+        this.countOperators(this.getOperator(), operands == null ? List.of() : operands);
+    }
+
+    protected void updateSeparation() {
+        if(linking || operands == null) return;
+        boolean separated = true;
+        for(Formula o : operands) separated = separated && o.getSeparation();
+        this.setSeparation(separated);
+    }
+
+    protected String format(List<String> os) {
+        /* the operands are printed as a left-deep chain, as newCombination would build them */
+        StringBuilder sb = new StringBuilder(this.operandString(0, os));
+        for(int i = 1; i < operands.size(); i++) {
+            if(i > 1) sb.insert(0, '(').append(')');
+            sb.append(' ').append(this.getOperator()).append(' ').append(this.operandString(i, os));
+        }
+        return sb.toString();
+    }
+
+    /** A format subroutine.
+     * @return Returns the string of the i-th operand, enclosed in parentheses if it is an operator formula
+     * @see #format(List) */
+    private String operandString(int i, List<String> os) {
+        if(operands.get(i) instanceof OperatorFormula) return String.format("(%s)", os.get(i));
+        return os.get(i);
+    }
+
+    @Override
+    public CombinationFormula deepCopy() { return (CombinationFormula) super.deepCopy(); }
+
+    protected CombinationFormula copy(List<Formula> os) {
+        return new CombinationFormula(this.getOperator(), os);
+    }
+
+    protected boolean equalTop(Formula f) {
+        /* formulae with different structural hashes cannot be equal */
+        return f instanceof OperatorFormula of && of.isOperator(this.getOperator())
+                && (of instanceof CombinationFormula || of instanceof BinaryFormula)
+                && of.structuralHash() == this.structuralHash();
+    }
+
+    protected boolean isCombination() { return true; }
+
+    /** @return Returns the operands of the combination rooted in the formula, in order:
+     * the operands which are combinations with the same operator are replaced by their own operands */
+    public ArrayList<Formula> getCombinationOperands() { return chainOperands(this); }
+
+    /** @return Returns the operands of the combination rooted in f, from left to right:
+     * the operands which are combinations with the same operator of f are replaced by their own operands */
+    static ArrayList<Formula> chainOperands(OperatorFormula f) {
+        ArrayList<Formula> al = new ArrayList<>();
+        ArrayDeque<Formula> stk = new ArrayDeque<>();
+        stk.push(f);
+        while(!stk.isEmpty()) {
+            Formula nf = stk.pop();
+            if(nf != f && !nf.isOperator(f.getOperator())) al.add(nf);
+            else if(nf instanceof BinaryFormula bf) {
+                stk.push(bf.getRoperand());
+                stk.push(bf.getLoperand());
+            }
+            else if(nf instanceof CombinationFormula cf) {
+                for(int i = cf.operands.size() - 1; i >= 0; i--) stk.push(cf.operands.get(i));
+            }
+        }
+        return al;
+    }
+
+    protected int computeStructuralHash() {
+        int h = 0;
+        for(Formula o : operands) h += this.operandContribution(o);
+        combinationHash = h;
+        return mix(31 * this.getOperator().ordinal() + combinationHash);
+    }
+
+    protected PathMetrics computePathMetrics() {
+        PathMetrics m = operands.get(0).getPathMetrics();
+        for(int i = 1; i < operands.size(); i++) {
+            m = PathMetrics.binary(this.getOperator(), m, operands.get(i).getPathMetrics());
+        }
+        return m;
+    }
+
+    /** @return Returns the equivalent left-deep chain of binary formulae,
+     * whose operands are the ones of the formula, linked without being copied */
+    public BinaryFormula toBinary() {
+        Formula prev = operands.get(0);
+        for(int i = 1; i < operands.size(); i++) prev = new BinaryFormula(this.getOperator(), prev, operands.get(i));
+        return (BinaryFormula) prev;
+    }
+
+    /** Replaces each chain of AND or OR binary formulae of f having more than two operands
+     * with the equivalent CombinationFormula.
+     * @return Returns the formula which takes the place of f */
+    public static Formula flatten(Formula f) {
+        Formula root = f;
+        Queue<Formula> q = new ArrayDeque<>();
+        q.add(f);
+        while(!q.isEmpty()) {
+            Formula nf = q.remove();
+            if(nf instanceof BinaryFormula bf && (bf.isOperator(AND) || bf.isOperator(OR))) {
+                ArrayList<Formula> ops = chainOperands(bf);
+                if(ops.size() > 2) {
+                    CombinationFormula cf = new CombinationFormula(bf.getOperator(), ops);
+                    if(bf == root) root = cf;
+                    nf = bf.replaceFormula(cf);
+                }
+            }
+            if(nf instanceof UnaryFormula uf) q.add(uf.getOperand());
+            if(nf instanceof BinaryFormula bf) {
+                q.add(bf.getLoperand());
+                q.add(bf.getRoperand());
+            }
+            if(nf instanceof CombinationFormula cf) q.addAll(cf.operands);
+        }
+        return root;
+    }
+
+    /** Replaces each CombinationFormula inside f with the equivalent left-deep chain of binary formulae.
+     * @return Returns the formula which takes the place of f */
+    public static Formula expand(Formula f) {
+        Formula root = f;
+        Queue<Formula> q = new ArrayDeque<>();
+        q.add(f);
+        while(!q.isEmpty()) {
+            Formula nf = q.remove();
+            if(nf instanceof CombinationFormula cf) {
+                /* the operands are moved to the chain, hence they are visited from there */
+                ArrayList<Formula> ops = new ArrayList<>(cf.operands);
+                OperatorFormula p = cf.getParent();
+                BinaryFormula bf = cf.toBinary();
+                if(p == null) root = bf;
+                else cf.replaceFormula(bf);
+                q.addAll(ops);
+                continue;
+            }
+            if(nf instanceof UnaryFormula uf) q.add(uf.getOperand());
+            if(nf instanceof BinaryFormula bf) {
+                q.add(bf.getLoperand());
+                q.add(bf.getRoperand());
+            }
+        }
+        return root;
+    }
+
+}
@@ -4,7 +4,7 @@ import graphviz.GraphViz;
 import parser.SimpleNode;
 import java.util.*;
 import static formula.Operator.*;
-import static formula.TimeConstant.MIXED;
+import static formula.TimeConstant.*;
 
 /** The Formula class represents a generic LTL formula. */
 public abstract class Formula {
@@ -22,6 +22,41 @@ public abstract class Formula {
     /** It is true if, and only, if the formula is separated, false otherwise. */
     private boolean separated;
 
+    /** The number of past operators inside the formula */
+    private int pastOperators;
+
+    /** The number of future operators inside the formula */
+    private int futureOperators;
+
+    private static final int[] NO_OCCURRENCES = new int[Operator.values().length];
+
+    /** The number of occurrences inside the formula of each operator, indexed by its ordinal */
+    private int[] operatorOccurrences = NO_OCCURRENCES;
+
+    /** The lazily computed results of searchOperators, discarded when the formula is modified */
+    private EnumMap<Operator, ArrayList<OperatorFormula>> occurrences;
+
+    /** The cached structural hash of the formula */
+    private int structuralHash;
+
+    /** It is true if, and only if, the cached structural hash is up-to-date */
+    private boolean structuralHashValid;
+
+    /** The cached metrics of the paths of the formula */
+    private PathMetrics pathMetrics;
+
+    /** The index which labelled the formula, null if the formula has never been labelled */
+    FormulaIndex index;
+
+    /** The generation of the index at the time the formula was labelled */
+    int indexGeneration;
+
+    /** The pre-order and post-order numbers of the formula inside the labelled subtree */
+    int preOrder, postOrder;
+
+    /** The UNTIL/SINCE ancestors of the formula inside the labelled subtree */
+    int indexAncestors;
+
     /** Initializes a newly created Formula with type t.*/
     public Formula() {
         this.parent = null;
@@ -40,29 +75,58 @@ public abstract class Formula {
 
     /** Translates a parse tree, consisting of an instance of the SimpleNode class,
      * into an instance of the Formula class.
+     * The parse tree is visited in post order with an explicit stack,
+     * so that deeply nested formulae do not overflow the call stack.
      * @return Returns a formula which is the translated form of the parse tree on which the method was called
      * @see formula.Formula */
     private static Formula fromSimpleNodeToFormula(SimpleNode node) throws IllegalArgumentException {
+        ArrayDeque<SimpleNode> nodes = new ArrayDeque<>();
+        ArrayDeque<Integer> cursors = new ArrayDeque<>();
+        ArrayDeque<Formula> translations = new ArrayDeque<>();
+        nodes.push(node);
+        cursors.push(0);
+        while(!nodes.isEmpty()) {
+            SimpleNode n = nodes.peek();
+            int i = cursors.pop();
+            /* the children of n are translated before n itself */
+            if(i < n.jjtGetNumChildren()) {
+                cursors.push(i + 1);
+                nodes.push((SimpleNode) n.jjtGetChild(i));
+                cursors.push(0);
+            }
+            else {
+                nodes.pop();
+                translations.push(translateNode(n, translations));
+            }
+        }
+        return translations.pop();
+    }
 
+    /** A fromSimpleNodeToFormula subroutine.
+     * Translates a SimpleNode whose children have already been translated,
+     * the translations of its children are on the top of the stack, the last child on top.
+     * @param node The SimpleNode to translate
+     * @param translations The stack of the translated nodes
+     * @return Returns the translation of the node into a node of the formula AST
+     * @see #fromSimpleNodeToFormula(SimpleNode) */
+    private static Formula translateNode(SimpleNode node, ArrayDeque<Formula> translations) {
         switch(node.getId()) {
             case 0: { //INPUT
                 /* Jump the Input node and return, as the root of the formula, the
                 formula translation of its unique child */
-                SimpleNode c = (SimpleNode) node.jjtGetChild(0);
-                return fromSimpleNodeToFormula(c);
+                return translations.pop();
             }
             // ALL BINARY
             case 2:
             case 3:
             case 4:
-            case 5: return translateBinaryNode(node);
+            case 5: return translateBinaryNode(node, translations);
             case 6: {
-                BinaryFormula bf = translateBinaryNode(node);
+                BinaryFormula bf = translateBinaryNode(node, translations);
                 bf.swapChildren();
                 return bf;
             }
             case 7: { //UNARY
-                SimpleNode c = (SimpleNode) node.jjtGetChild(0);
                 String img = node.jjtGetValue();
                 /* the input formulas are expressed in infix notation
                  * while the program logic uses the prefix one,
@@ -70,7 +134,7 @@ public abstract class Formula {
                  * of the input formulae it is needed to swap the two children */
                 return new UnaryFormula(
                         fromString(img),
-                        fromSimpleNodeToFormula(c)
+                        translations.pop()
                 );
             }
             case 8: { //ATOM
@@ -83,40 +147,43 @@ public abstract class Formula {
         }
     }
 
-    /** A fromSimpleNodeToFormula subroutine.
+    /** A translateNode subroutine.
      * Translates a SimpleNode, with an id corresponding to a binary operator,
      * into an equivalent formula.
      * @param n The SimpleNode to translate
+     * @param translations The stack of the translated nodes, with the translation of the right child on top
      * @return Returns the translation of the node into a node of the formula AST
-     * @see #fromSimpleNodeToFormula(SimpleNode)
+     * @see #translateNode(SimpleNode, ArrayDeque)
      * */
-    private static BinaryFormula translateBinaryNode(SimpleNode n) {
-        SimpleNode lc = (SimpleNode) n.jjtGetChild(0); // left child of n
-        SimpleNode rc = (SimpleNode) n.jjtGetChild(1); // right child of n
+    private static BinaryFormula translateBinaryNode(SimpleNode n, ArrayDeque<Formula> translations) {
+        Formula rc = translations.pop(); // translation of the right child
+        Formula lc = translations.pop(); // translation of the left child
         Operator op = fromString(n.jjtGetValue());
-        return new BinaryFormula(
-                op,
-                fromSimpleNodeToFormula(lc), // translation of the left child
-                fromSimpleNodeToFormula(rc)  // translation of the right child
-        );
+        return new BinaryFormula(op, lc, rc);
     }
 
     /** Sets the parent of the formula
      * @param p the formula which will be set as parent */
     public void setParent(OperatorFormula p) {
+        /* the labels of the indexes containing the formula, its old or its new parent are discarded */
+        FormulaIndex.invalidate(this);
+        FormulaIndex.invalidate(this.parent);
+        FormulaIndex.invalidate(p);
         this.parent = p;
         if(p != null) {
+            p.invalidateCaches();
             this.updateAncestorsTime();
             this.updateAncestorsSeparation();
         }
     }
 
-    /** A setParent subroutine. Updates the time of the ancestors of the formula.
+    /** A setParent subroutine. Updates the time and the operator counts of the ancestors of the formula.
      * @see #setParent(OperatorFormula) */
     private void updateAncestorsTime() {
         Formula c = this;
         OperatorFormula p = c.getParent();
         while(p != null) {
+            p.updateOperatorCounts();
             p.updateTime(c);
             c = p;
             p = p.getParent();
@@ -172,7 +239,119 @@ public abstract class Formula {
         }
     }
 
-    public abstract boolean equalTo(Formula f);
+    /** @return Returns true if, and only if, f is structurally equal to the formula,
+     * modulo the order of the operands of the AND, OR and EQUIV combinations.
+     * The pairs of corresponding nodes are compared with an explicit stack. */
+    public boolean equalTo(Formula f) {
+        ArrayDeque<Formula> stk = new ArrayDeque<>();
+        stk.push(this);
+        stk.push(f);
+        while(!stk.isEmpty()) {
+            Formula g = stk.pop();
+            Formula t = stk.pop();
+            if(!t.equalTop(g)) return false;
+            /* the operands of the combinations are compared regardless of their order */
+            if(t instanceof OperatorFormula ot && ot.isCombination()) {
+                if(!OperatorFormula.equalCombinations(combinationOperands(g), combinationOperands(ot))) return false;
+                continue;
+            }
+            for(int i = 0; i < t.getArity(); i++) {
+                stk.push(t.getOperand(i));
+                stk.push(g.getOperand(i));
+            }
+        }
+        return true;
+    }
+
+    /** An equalTo subroutine.
+     * @return Returns true if, and only if, the top node of f is equal to the one of the formula
+     * and the two formulae have the same structural hash, regardless of their operands
+     * @see #equalTo(Formula) */
+    protected abstract boolean equalTop(Formula f);
+
+    /** An equalTo subroutine.
+     * @return Returns the operands of the combination rooted in f
+     * @see #equalTo(Formula) */
+    private static ArrayList<Formula> combinationOperands(Formula f) {
+        if(f instanceof CombinationFormula cf) return cf.getCombinationOperands();
+        return ((BinaryFormula) f).getCombinationOperands();
+    }
+
+    /** @return Returns the number of operands of the formula */
+    public abstract int getArity();
+
+    /** @return Returns the i-th operand of the formula, from zero
+     * @throws IndexOutOfBoundsException if the formula has no i-th operand */
+    public abstract Formula getOperand(int i);
+
+    /** A toString subroutine.
+     * @return Returns the string of the top node of the formula, given the strings of its operands
+     * @see FormulaTraversal#reduce(Formula, FormulaTraversal.Reducer) */
+    protected abstract String format(List<String> operands);
+
+    /** A deepCopy subroutine.
+     * @return Returns a copy of the top node of the formula having the formulae os as operands
+     * @see FormulaTraversal#reduce(Formula, FormulaTraversal.Reducer) */
+    protected abstract Formula copy(List<Formula> os);
+
+    /** @return Returns the structural hash of the formula. Two formulae which are equal
+     * according to equalTo have the same structural hash, hence formulae with different
+     * hashes can be told apart without visiting them.
+     * The hash is computed once and cached until the formula is modified.
+     * @see #equalTo(Formula) */
+    public int structuralHash() {
+        if(!structuralHashValid) {
+            /* the hashes of the outdated operands are computed first, bottom-up */
+            FormulaTraversal.postOrder(this, f -> !f.structuralHashValid, f -> {
+                f.structuralHash = f.computeStructuralHash();
+                f.structuralHashValid = true;
+            });
+        }
+        return structuralHash;
+    }
+
+    /** A structuralHash subroutine. Computes the structural hash of the formula
+     * from the ones of its operands.
+     * @see #structuralHash() */
+    protected abstract int computeStructuralHash();
+
+    /** @return Returns the metrics of the paths of the formula,
+     * computed once and cached until the formula is modified
+     * @see PathMetrics */
+    public PathMetrics getPathMetrics() {
+        if(pathMetrics == null) {
+            /* the metrics of the outdated operands are computed first, bottom-up */
+            FormulaTraversal.postOrder(this, f -> f.pathMetrics == null, f -> f.pathMetrics = f.computePathMetrics());
+        }
+        return pathMetrics;
+    }
+
+    /** A getPathMetrics subroutine. Computes the metrics of the paths of the formula
+     * from the ones of its operands.
+     * @see #getPathMetrics() */
+    protected abstract PathMetrics computePathMetrics();
+
+    /** Invalidates the cached values (structural hash, path metrics, operator occurrences)
+     * of the formula and of its ancestors. */
+    protected void invalidateCaches() {
+        Formula f = this;
+        while(f != null) {
+            f.structuralHashValid = false;
+            f.pathMetrics = null;
+            f.occurrences = null;
+            f = f.getParent();
+        }
+    }
+
+    /** @return Returns the bits of h mixed up, so that close values are spread on the whole int range */
+    protected static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
 
     /** @return Returns the parent of the formula */
     public OperatorFormula getParent(){ return this.parent; }
@@ -185,7 +364,18 @@ public abstract class Formula {
     }
 
     /** @return Returns a deep copy of the formula */
-    public abstract Formula deepCopy();
+    public Formula deepCopy() { return FormulaTraversal.reduce(this, Formula::copy); }
+
+    /** @return Returns a deep copy of the formula whose atoms are renamed by the map renaming,
+     * the atoms which are not in the map keep their image */
+    public Formula renameAtoms(Map<String, String> renaming) {
+        return FormulaTraversal.reduce(this, (f, os) -> {
+            if(f instanceof AtomicFormula af && renaming.containsKey(af.getImage())) {
+                return new AtomicFormula(renaming.get(af.getImage()));
+            }
+            return f.copy(os);
+        });
+    }
 
     /** @return Returns the negation of the formula on which the method was called */
     public UnaryFormula negate() {return new UnaryFormula(NOT, this.deepCopy(), null); }
@@ -208,6 +398,7 @@ public abstract class Formula {
     public boolean isChildOf(OperatorFormula f) {
         if(f instanceof UnaryFormula uf) return this.isChildOf(uf);
         if(f instanceof BinaryFormula bf) return this.isChildOf(bf);
+        if(f instanceof CombinationFormula cf) return cf.indexOf(this) >= 0;
         return false;
     }
 
@@ -223,8 +414,20 @@ public abstract class Formula {
         return Objects.equals(this, f.getOperand());
     }
 
+    /** Labels the formula as a node of the index idx.
+     * @see FormulaIndex#refresh(Formula) */
+    void labelIndex(FormulaIndex idx, int generation, int ancestors) {
+        this.index = idx;
+        this.indexGeneration = generation;
+        this.preOrder = -1;
+        this.postOrder = -1;
+        this.indexAncestors = ancestors;
+    }
+
     /** @return Returns true if, and only if, this is in the right subtree of f */
     public boolean isInRightSubtreeOf(BinaryFormula f) {
+        Formula rc = f.getRoperand();
+        if(FormulaIndex.sameLabels(this, rc) && rc.getParent() == f) return FormulaIndex.contains(rc, this);
         Formula nf = this;
         while(nf.getParent() != f && nf.getParent() != null) nf = nf.getParent();
         return (nf.getParent() != null && nf.getParent() == f && nf == f.getRoperand());
@@ -232,6 +435,8 @@ public abstract class Formula {
 
     /** @return Returns true if, and only if, this is in the left subtree of f */
     public boolean isInLeftSubtreeOf(BinaryFormula f){
+        Formula lc = f.getLoperand();
+        if(FormulaIndex.sameLabels(this, lc) && lc.getParent() == f) return FormulaIndex.contains(lc, this);
         Formula nf = this;
         while(nf.getParent() != f && nf.getParent() != null) nf = nf.getParent();
         return (nf.getParent() != null && nf.getParent() == f && nf == f.getLoperand());
@@ -239,6 +444,7 @@ public abstract class Formula {
 
 
     public boolean isNestedInside(OperatorFormula f) {
+        if(FormulaIndex.sameLabels(this, f)) return this != f && FormulaIndex.contains(f, this);
         Formula t = this;
         while(t.getParent() != null && t.getParent() != f) t = t.getParent();
         return (t.getParent() != null && t.getParent() == f);
@@ -278,40 +484,65 @@ public abstract class Formula {
             if(this.isLeftChildOf(bp)) bp.setLoperand(f);
             if(this.isRightChildOf(bp)) bp.setRoperand(f);
         }
+        if(p instanceof CombinationFormula cp) cp.setOperand(cp.indexOf(this), f);
         return f;
     }
 
+    /** @return Returns the number of past operators inside the formula */
+    public int countPastOperators() { return pastOperators; }
+
+    /** @return Returns the number of future operators inside the formula */
+    public int countFutureOperators() { return futureOperators; }
+
+    /** @return Returns the number of occurrences of the operator op inside the formula */
+    public int countOperator(Operator op) { return operatorOccurrences[op.ordinal()]; }
+
+    /** Sets the operator counts of the formula to the ones of its operands lc and rc,
+     * which may be null, plus its top operator op. */
+    protected void countOperators(Operator op, Formula lc, Formula rc) {
+        this.countOperators(op, Arrays.asList(lc, rc));
+    }
+
+    /** Sets the operator counts of the formula to the ones of its operands os,
+     * which may be null, plus its top operator op. */
+    protected void countOperators(Operator op, List<Formula> os) {
+        if(operatorOccurrences == NO_OCCURRENCES) operatorOccurrences = new int[NO_OCCURRENCES.length];
+        else Arrays.fill(operatorOccurrences, 0);
+        operatorOccurrences[op.ordinal()] = 1;
+        pastOperators = op.isPast() ? 1 : 0;
+        futureOperators = op.isFuture() ? 1 : 0;
+        for(Formula o : os) {
+            if(o == null) continue;
+            for(int i = 0; i < operatorOccurrences.length; i++) {
+                operatorOccurrences[i] += o.operatorOccurrences[i];
+            }
+            pastOperators += o.pastOperators;
+            futureOperators += o.futureOperators;
+        }
+    }
+
     public boolean containsOperatorOfTime(TimeConstant t) {
-        Queue<Formula> q = new LinkedList<>();
-        q.add(this);
-        while(!q.isEmpty()) {
-            Formula f = q.remove();
-            /* if the formula is pure PAST, which means that contains
-             * at least a PAST operator, then return true */
-            if(f.isPure(t)) return true;
+        /* the past and future operators are counted incrementally
+         * when the operands of a formula are set */
+        if(t == PAST) return pastOperators > 0;
+        if(t == FUTURE) return futureOperators > 0;
+        Formula found = FormulaTraversal.traverse(this, FormulaTraversal.Order.LEVEL_ORDER, f -> {
+            /* if the formula is pure t, which means that contains
+             * at least an operator of time t, then stop the search */
+            if(f.isPure(t)) return FormulaTraversal.Action.STOP;
             /* if f is an OperatorFormula and is not pure (MIXED),
-             * it might contain a PAST operator */
+             * it might contain an operator of time t */
             if(f instanceof OperatorFormula of && !f.isPure()) {
                 /* if the operator of the formula has time t then
-                 * return true (this is the case when the method is
+                 * stop the search (this is the case when the method is
                  * called on a formula that has as operator the searched one) */
-                if(of.getOperator().getTime().equals(t)) {
-                    return true;
-                }
-                /* if it is a UnaryFormula then continue the search
-                 * on its child */
-                if(of instanceof UnaryFormula uf) {
-                    q.add(uf.getOperand());
-                }
-                /* if it is a UnaryFormula then continue the search
-                 * on its two children */
-                if(of instanceof BinaryFormula bf) {
-                    if(bf.getLoperand() != null) q.add(bf.getLoperand());
-                    if(bf.getRoperand() != null) q.add(bf.getRoperand());
-                }
+                if(of.getOperator().getTime().equals(t)) return FormulaTraversal.Action.STOP;
+                /* else continue the search on its operands */
+                return FormulaTraversal.Action.CONTINUE;
             }
-        }
-        return false;
+            return FormulaTraversal.Action.SKIP_OPERANDS;
+        });
+        return found != null;
     }
 
 
@@ -320,115 +551,47 @@ public abstract class Formula {
      * else return null
      * @param op the Operator to be searched */
     public OperatorFormula searchOperator(Operator op) {
-        Queue<Formula> q = new LinkedList<>();
-        q.add(this);
-        while(!q.isEmpty()) {
-            Formula f = q.remove();
-            if(f instanceof OperatorFormula of) {
-                if(of.isOperator(op)) return of;
-                switch (op.getTime()) {
-                    case PAST : {
-                        switch (of.getTime()) {
-                            case PAST, MIXED: {
-                                if(of instanceof UnaryFormula uf) {
-                                    q.add(uf.getOperand());
-                                }
-                                if(of instanceof BinaryFormula bf) {
-                                    q.add(bf.getLoperand());
-                                    q.add(bf.getRoperand());
-                                }
-                                break;
-                            }
-                            default: break;
-                        }
-                        break;
-                    }
-                    case PRESENT: {
-                        if(of instanceof UnaryFormula uf) {
-                            q.add(uf.getOperand());
-                        }
-                        if(of instanceof BinaryFormula bf) {
-                            q.add(bf.getLoperand());
-                            q.add(bf.getRoperand());
-                        }
-                        break;
-                    }
-                    case FUTURE:  {
-                        switch (op.getTime()) {
-                            case FUTURE, MIXED: {
-                                if(of instanceof UnaryFormula uf) {
-                                    q.add(uf.getOperand());
-                                }
-                                if(of instanceof BinaryFormula bf) {
-                                    q.add(bf.getLoperand());
-                                    q.add(bf.getRoperand());
-                                }
-                                break;
-                            }
-                            default: break;
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return null;
+        if(this.countOperator(op) == 0) return null;
+        ArrayList<OperatorFormula> r = this.occurrencesOf(op);
+        return r.isEmpty() ? null : r.get(0);
     }
 
+    /** Performs a BFS of the formula searching the subformulae whose top operator is op,
+     * the search does not go on inside the found subformulae.
+     * @return Returns the list of the found subformulae in BFS order
+     * @param op the Operator to be searched */
     public ArrayList<OperatorFormula> searchOperators(Operator op) {
+        if(this.countOperator(op) == 0) return new ArrayList<>();
+        return new ArrayList<>(this.occurrencesOf(op));
+    }
+
+    /** A searchOperators subroutine.
+     * @return Returns the cached result of the search of op, computing it if needed
+     * @see #searchOperators(Operator) */
+    private ArrayList<OperatorFormula> occurrencesOf(Operator op) {
+        if(occurrences == null) occurrences = new EnumMap<>(Operator.class);
+        ArrayList<OperatorFormula> r = occurrences.get(op);
+        if(r == null) {
+            r = this.findOperators(op);
+            occurrences.put(op, r);
+        }
+        return r;
+    }
+
+    /** A searchOperators subroutine. The subtrees that do not contain op are skipped.
+     * @see #searchOperators(Operator) */
+    private ArrayList<OperatorFormula> findOperators(Operator op) {
         ArrayList<OperatorFormula> r = new ArrayList<>();
-        Queue<Formula> q = new LinkedList<>();
-        q.add(this);
-        while(!q.isEmpty()) {
-            Formula f = q.remove();
-            if(f instanceof OperatorFormula of) {
-                if(of.isOperator(op)) r.add(of);
-                else switch (op.getTime()) {
-                    case PAST : {
-                        switch (of.getTime()) {
-                            case PAST, MIXED: {
-                                if(of instanceof UnaryFormula uf) {
-                                    q.add(uf.getOperand());
-                                }
-                                if(of instanceof BinaryFormula bf) {
-                                    q.add(bf.getLoperand());
-                                    q.add(bf.getRoperand());
-                                }
-                                break;
-                            }
-                            default: break;
-                        }
-                        break;
-                    }
-                    case PRESENT: {
-                        if(of instanceof UnaryFormula uf) {
-                            q.add(uf.getOperand());
-                        }
-                        if(of instanceof BinaryFormula bf) {
-                            q.add(bf.getLoperand());
-                            q.add(bf.getRoperand());
-                        }
-                        break;
-                    }
-                    case FUTURE:  {
-                        switch (op.getTime()) {
-                            case FUTURE, MIXED: {
-                                if(of instanceof UnaryFormula uf) {
-                                    q.add(uf.getOperand());
-                                }
-                                if(of instanceof BinaryFormula bf) {
-                                    q.add(bf.getLoperand());
-                                    q.add(bf.getRoperand());
-                                }
-                                break;
-                            }
-                            default: break;
-                        }
-                        break;
-                    }
-                }
+        FormulaTraversal.levelOrder(this, f -> {
+            if(f.countOperator(op) == 0 || !(f instanceof OperatorFormula of)) return false;
+            if(of.isOperator(op)) {
+                r.add(of);
+                return false;
             }
-        }
+            /* a past operator can only be found inside the past or mixed subformulae */
+            if(op.getTime() == PAST) return of.getTime() == PAST || of.getTime() == MIXED;
+            return true;
+        });
         return r;
     }
 
@@ -462,24 +625,11 @@ public abstract class Formula {
      * @see #fromFormulaToGraphViz()
      * @see GraphViz */
     private static void operatorFormulaGraphViz(GraphViz gv, OperatorFormula f){
-        if(f instanceof UnaryFormula uf) {
-            Formula c = uf.getOperand();
-            gv.addln(f.hashCode() + " [label=\"" + f.getImage() + "\"]" + ";");
-            gv.addln(c.hashCode() + " [label=\"" + c.getImage() + "\"]" + ";");
-            gv.addln(f.hashCode() + "--" + c.hashCode() + ";");
-            if(c instanceof OperatorFormula oc) operatorFormulaGraphViz(gv, oc);
-        }
-        if(f instanceof BinaryFormula bf) {
-            Formula lc = bf.getLoperand();
-            Formula rc = bf.getRoperand();
-            gv.addln(f.hashCode() + " [ " +  nodeDebugColor(f) + "label=\""  + f.getImage() + "\"]" + ";");
-            gv.addln(lc.hashCode() + " [ " + nodeDebugColor(lc) + "label=\""  + lc.getImage() + "\"]" + ";");
-            gv.addln(rc.hashCode() +" [ " + nodeDebugColor(rc) + "label=\"" +  rc.getImage() + "\"]" + ";");
-            gv.addln(f.hashCode() + "--" + lc.hashCode() + ";");
-            if(lc instanceof OperatorFormula olc) operatorFormulaGraphViz(gv, olc);
-            gv.addln(f.hashCode() + "--" + rc.hashCode() + ";");
-            if(rc instanceof OperatorFormula orc) operatorFormulaGraphViz(gv, orc);
-        }
+        FormulaTraversal.preOrder(f, n -> {
+            gv.addln(n.hashCode() + " [ " +  nodeDebugColor(n) + "label=\""  + n.getImage() + "\"]" + ";");
+            for(int i = 0; i < n.getArity(); i++) gv.addln(n.hashCode() + "--" + n.getOperand(i).hashCode() + ";");
+            return true;
+        });
     }
 
     /** An operatorFormulaGraphViz subroutine.
@@ -497,31 +647,28 @@ public abstract class Formula {
     public ArrayList<Path> getPaths() {
         /* List of paths */
         ArrayList<Path> paths = new ArrayList<>();
-        Stack<Formula> stk = new Stack<>();
+        /* the paths are listed in pre order, from the last operand to the first one */
+        ArrayDeque<Formula> stk = new ArrayDeque<>();
         stk.push(this);
         while (!stk.isEmpty()) {
             Formula y = stk.pop();
             if(y instanceof AtomicFormula && y != this) {
                 paths.add(new Path((OperatorFormula) this, y));
             }
-            if(y instanceof OperatorFormula) {
-                if(y instanceof UnaryFormula uy) {
-                    stk.push(uy.getOperand());
-                }
-                if(y instanceof BinaryFormula by) {
-                    stk.push(by.getLoperand());
-                    stk.push(by.getRoperand());
-                }
-            }
+            for(int i = 0; i < y.getArity(); i++) stk.push(y.getOperand(i));
         }
         return paths;
     }
 
-    public int degree() {
-        ArrayList<Path> paths = this.getPaths();
-        OptionalInt d =  paths.stream().mapToInt(Path::getM).max();
-        if(d.isPresent()) return d.getAsInt();
-        return 0;
+    /** @return Returns the maximum number of changes of the paths of the formula
+     * @see Path#getM() */
+    public int degree() { return this.getPathMetrics().degree(); }
+
+    /** @return Returns the number of nodes of the formula */
+    public int size() {
+        int[] n = {0};
+        FormulaTraversal.postOrder(this, f -> n[0]++);
+        return n[0];
     }
 
 
@@ -0,0 +1,106 @@
+package formula;
+
+import java.util.ArrayDeque;
+import static formula.Operator.*;
+
+/** The FormulaIndex class labels the nodes of a formula with their pre-order and post-order
+ * numbers, so that the ancestry and the left/right subtree queries between labelled nodes
+ * are answered in constant time instead of walking the parent pointers.
+ * The labels are computed by refresh and are discarded as soon as one of the labelled nodes
+ * is modified, after that the queries fall back to the walk until the next refresh.
+ * @see Formula#isInLeftSubtreeOf(BinaryFormula)
+ * @see Formula#isInRightSubtreeOf(BinaryFormula)
+ * @see Formula#isNestedInside(OperatorFormula)
+ * @see OperatorFormula#isAncestorOf(Formula) */
+public class FormulaIndex {
+
+    /** Bit of the labels of the nodes having an UNTIL ancestor inside the labelled subtree */
+    static final int UNTIL_ANCESTOR = 1;
+
+    /** Bit of the labels of the nodes having a SINCE ancestor inside the labelled subtree */
+    static final int SINCE_ANCESTOR = 2;
+
+    /** The root of the labelled subtree */
+    private Formula root;
+
+    /** The number of times the index has been refreshed,
+     * the labels of the previous refreshes are not valid anymore */
+    private int generation;
+
+    /** It is true if, and only if, no labelled node has been modified since the last refresh */
+    private boolean valid;
+
+    /** Labels the nodes of the subtree rooted in r, unless it is already labelled and unmodified.
+     * @param r the root of the subtree to be labelled */
+    public void refresh(Formula r) {
+        if(valid && root == r) return;
+        root = r;
+        generation++;
+        int counter = 0;
+        ArrayDeque<Formula> stk = new ArrayDeque<>();
+        r.labelIndex(this, generation, 0);
+        stk.push(r);
+        while(!stk.isEmpty()) {
+            Formula f = stk.pop();
+            /* the first time a node is popped it is given its pre-order number
+             * and it is pushed back to be given its post-order number after its operands */
+            if(f.preOrder < 0) {
+                f.preOrder = counter++;
+                stk.push(f);
+                int bits = f.indexAncestors;
+                if(f.isOperator(UNTIL)) bits |= UNTIL_ANCESTOR;
+                if(f.isOperator(SINCE)) bits |= SINCE_ANCESTOR;
+                if(f instanceof UnaryFormula uf) pushOperand(stk, uf, uf.getOperand(), bits);
+                if(f instanceof BinaryFormula bf) {
+                    pushOperand(stk, bf, bf.getRoperand(), bits);
+                    pushOperand(stk, bf, bf.getLoperand(), bits);
+                }
+                if(f instanceof CombinationFormula cf) {
+                    for(int i = cf.getArity() - 1; i >= 0; i--) pushOperand(stk, cf, cf.getOperand(i), bits);
+                }
+            }
+            else f.postOrder = counter++;
+        }
+        valid = true;
+    }
+
+    /** A refresh subroutine. Pushes the operand o of p on the stack,
+     * provided that the parent of o is p: an operand shared with another
+     * formula is left unlabelled, hence its queries walk its parent pointers.
+     * @see #refresh(Formula) */
+    private void pushOperand(ArrayDeque<Formula> stk, OperatorFormula p, Formula o, int bits) {
+        if(o == null || o.getParent() != p) return;
+        o.labelIndex(this, generation, bits);
+        stk.push(o);
+    }
+
+    /** @return Returns the root of the labelled subtree */
+    public Formula getRoot() { return root; }
+
+    /** @return Returns true if, and only if, no labelled node has been modified since the last refresh */
+    public boolean isValid() { return valid; }
+
+    /** Discards the labels of the index. */
+    public void invalidate() { valid = false; }
+
+    /** @return Returns true if, and only if, f has a valid label of the index */
+    boolean labels(Formula f) {
+        return valid && f.index == this && f.indexGeneration == generation;
+    }
+
+    /** @return Returns true if, and only if, a and b have valid labels of the same index */
+    static boolean sameLabels(Formula a, Formula b) {
+        return a.index != null && a.index.labels(a) && a.index.labels(b);
+    }
+
+    /** @return Returns true if, and only if, the labelled node a is an ancestor of the labelled node b or b itself */
+    static boolean contains(Formula a, Formula b) {
+        return a.preOrder <= b.preOrder && b.postOrder <= a.postOrder;
+    }
+
+    /** Discards the labels of the index which labelled f, if any. */
+    static void invalidate(Formula f) {
+        if(f != null && f.index != null && f.index.labels(f)) f.index.invalidate();
+    }
+
+}
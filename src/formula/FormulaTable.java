@@ -0,0 +1,84 @@
+package formula;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import static formula.Operator.*;
+
+/** The FormulaTable class is the unique table of the hash-consed formulae.
+ * Each node is keyed on its operator and on the identities of its operands,
+ * hence structurally equal formulae built by the same table are the same object.
+ * The table can be shared between threads.
+ * @see ImmutableFormula */
+public class FormulaTable {
+
+    private final ConcurrentHashMap<ImmutableFormula, ImmutableFormula> table = new ConcurrentHashMap<>();
+
+    /** @return Returns the unique formula of the table equal to f */
+    private ImmutableFormula intern(ImmutableFormula f) {
+        ImmutableFormula u = table.putIfAbsent(f, f);
+        return u == null ? f : u;
+    }
+
+    /** @return Returns the unique atomic formula with image img */
+    public ImmutableFormula atom(String img) {
+        return intern(new ImmutableFormula(img));
+    }
+
+    /** @return Returns the unique atomic formula corresponding to the atom constant c */
+    public ImmutableFormula atom(AtomConstant c) {
+        return atom(c.getImage());
+    }
+
+    /** @return Returns the unique formula with the unary operator op and operand o */
+    public ImmutableFormula unary(Operator op, ImmutableFormula o) {
+        if(!op.isUnary()) throw new IllegalArgumentException(
+                String.format("The operator should be unary but has arity %d", op.getArity())
+        );
+        return intern(new ImmutableFormula(op, o));
+    }
+
+    /** @return Returns the unique formula with the binary operator op,
+     * left operand lc and right operand rc */
+    public ImmutableFormula binary(Operator op, ImmutableFormula lc, ImmutableFormula rc) {
+        if(!op.isBinary()) throw new IllegalArgumentException(
+                String.format("The operator should be binary but has arity %d", op.getArity())
+        );
+        return intern(new ImmutableFormula(op, lc, rc));
+    }
+
+    /** @return Returns the unique formula which is the negation of f */
+    public ImmutableFormula negate(ImmutableFormula f) { return unary(NOT, f); }
+
+    /** @return Returns the unique formula which is the left-deep combination
+     * with operator op of the formulae of the collection got in input
+     * @see BinaryFormula#newCombination(Operator, Collection) */
+    public ImmutableFormula combination(Operator op, Collection<ImmutableFormula> fms) {
+        if(fms.isEmpty()) throw new IndexOutOfBoundsException(
+                "the list must contain at least one element"
+        );
+        Iterator<ImmutableFormula> itr = fms.iterator();
+        ImmutableFormula prev = itr.next();
+        while (itr.hasNext()) prev = binary(op, prev, itr.next());
+        return prev;
+    }
+
+    /** Translates a mutable formula into its hash-consed representation.
+     * @return Returns the unique formula of the table structurally equal to f */
+    public ImmutableFormula fromFormula(Formula f) {
+        return FormulaTraversal.reduce(f, (g, os) -> {
+            if(g instanceof UnaryFormula uf) return unary(uf.getOperator(), os.get(0));
+            if(g instanceof BinaryFormula bf) return binary(bf.getOperator(), os.get(0), os.get(1));
+            if(g instanceof CombinationFormula cf) return combination(cf.getOperator(), os);
+            return atom(g.getImage());
+        });
+    }
+
+    /** @return Returns the number of distinct formulae inside the table */
+    public int size() { return table.size(); }
+
+    /** Removes all the formulae from the table. The formulae previously built
+     * remain valid but will not be shared with the ones built afterwards. */
+    public void clear() { table.clear(); }
+
+}
@@ -0,0 +1,246 @@
+package formula;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/** The FormulaTraversal class visits the nodes of a formula without recursion,
+ * so that formulae nested thousands of levels deep do not overflow the call stack.
+ * The pending nodes are kept in an array work buffer which grows when needed and
+ * is reused by the following traversals of the same thread, hence a traversal
+ * does not allocate once the buffer is large enough.
+ * The operands of a node are visited from the first to the last one.
+ * @see Formula#getArity()
+ * @see Formula#getOperand(int) */
+public final class FormulaTraversal {
+
+    /** The order in which the nodes are visited */
+    public enum Order {
+        /** each node is visited before its operands, depth first */
+        PRE_ORDER,
+        /** each node is visited after its operands, depth first */
+        POST_ORDER,
+        /** the nodes are visited level by level, breadth first */
+        LEVEL_ORDER
+    }
+
+    /** What a traversal does after visiting a node */
+    public enum Action {
+        /** the traversal goes on inside the operands of the node */
+        CONTINUE,
+        /** the traversal goes on, skipping the operands of the node */
+        SKIP_OPERANDS,
+        /** the traversal is interrupted */
+        STOP
+    }
+
+    /** A visitor of the nodes of a formula */
+    @FunctionalInterface
+    public interface Visitor {
+        /** @return Returns what the traversal must do after the visit of f */
+        Action visit(Formula f);
+    }
+
+    /** A function computing a value for each node from the values of its operands */
+    @FunctionalInterface
+    public interface Reducer<R> {
+        /** @return Returns the value of f, given the values of its operands in order */
+        R reduce(Formula f, List<R> operands);
+    }
+
+    /** The idle traversals of each thread, a nested traversal takes its own buffer */
+    private static final ThreadLocal<ArrayDeque<FormulaTraversal>> POOL =
+            ThreadLocal.withInitial(ArrayDeque::new);
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The pending nodes: a stack for the depth first orders, a queue for the level order */
+    private Formula[] nodes = new Formula[INITIAL_CAPACITY];
+
+    /** For the post order, the position of the next operand to visit of each pending node */
+    private int[] cursors = new int[INITIAL_CAPACITY];
+
+    /** The values computed by reduce which have not been consumed yet */
+    private final ArrayList<Object> values = new ArrayList<>();
+
+    private FormulaTraversal() {}
+
+    /** Visits the nodes of the formula rooted in root in the order o.
+     * In post order the operands are always visited, regardless of the action returned.
+     * @return Returns the node on which the visitor returned STOP, null if the traversal was not interrupted */
+    public static Formula traverse(Formula root, Order o, Visitor v) {
+        FormulaTraversal t = acquire();
+        try {
+            return switch (o) {
+                case PRE_ORDER -> t.visitPreOrder(root, v);
+                case POST_ORDER -> t.visitPostOrder(root, f -> true, v);
+                case LEVEL_ORDER -> t.visitLevelOrder(root, v);
+            };
+        } finally {
+            release(t);
+        }
+    }
+
+    /** Visits in pre order the nodes of the formula rooted in root,
+     * the operands of a node are visited if, and only if, v returns true on it. */
+    public static void preOrder(Formula root, Predicate<Formula> v) {
+        traverse(root, Order.PRE_ORDER, f -> v.test(f) ? Action.CONTINUE : Action.SKIP_OPERANDS);
+    }
+
+    /** Visits level by level the nodes of the formula rooted in root,
+     * the operands of a node are visited if, and only if, v returns true on it. */
+    public static void levelOrder(Formula root, Predicate<Formula> v) {
+        traverse(root, Order.LEVEL_ORDER, f -> v.test(f) ? Action.CONTINUE : Action.SKIP_OPERANDS);
+    }
+
+    /** Visits in post order the nodes of the formula rooted in root. */
+    public static void postOrder(Formula root, Consumer<Formula> v) {
+        postOrder(root, f -> true, v);
+    }
+
+    /** Visits in post order the nodes of the formula rooted in root which satisfy filter,
+     * the subtrees rooted in the nodes which do not satisfy it are skipped. */
+    public static void postOrder(Formula root, Predicate<Formula> filter, Consumer<Formula> v) {
+        FormulaTraversal t = acquire();
+        try {
+            t.visitPostOrder(root, filter, f -> {
+                v.accept(f);
+                return Action.CONTINUE;
+            });
+        } finally {
+            release(t);
+        }
+    }
+
+    /** Computes bottom-up a value for each node of the formula rooted in root.
+     * @return Returns the value of root */
+    @SuppressWarnings("unchecked")
+    public static <R> R reduce(Formula root, Reducer<R> r) {
+        FormulaTraversal t = acquire();
+        try {
+            ArrayList<Object> values = t.values;
+            t.visitPostOrder(root, f -> true, f -> {
+                int n = f.getArity();
+                List<Object> operands = values.subList(values.size() - n, values.size());
+                R value = r.reduce(f, (List<R>) operands);
+                operands.clear();
+                values.add(value);
+                return Action.CONTINUE;
+            });
+            return (R) values.remove(values.size() - 1);
+        } finally {
+            release(t);
+        }
+    }
+
+    private Formula visitPreOrder(Formula root, Visitor v) {
+        int top = 0;
+        nodes[top++] = root;
+        try {
+            while(top > 0) {
+                Formula f = nodes[--top];
+                nodes[top] = null;
+                Action a = v.visit(f);
+                if(a == Action.STOP) return f;
+                if(a == Action.SKIP_OPERANDS) continue;
+                /* the operands are pushed from the last one, so that the first one is visited first */
+                for(int i = f.getArity() - 1; i >= 0; i--) {
+                    Formula o = f.getOperand(i);
+                    if(o == null) continue;
+                    if(top == nodes.length) grow();
+                    nodes[top++] = o;
+                }
+            }
+            return null;
+        } finally {
+            Arrays.fill(nodes, 0, top, null);
+        }
+    }
+
+    private Formula visitPostOrder(Formula root, Predicate<Formula> filter, Visitor v) {
+        if(!filter.test(root)) return null;
+        int top = 0;
+        nodes[top] = root;
+        cursors[top++] = 0;
+        try {
+            while(top > 0) {
+                Formula f = nodes[top - 1];
+                int i = cursors[top - 1];
+                if(i < f.getArity()) {
+                    cursors[top - 1] = i + 1;
+                    Formula o = f.getOperand(i);
+                    if(o == null || !filter.test(o)) continue;
+                    if(top == nodes.length) grow();
+                    nodes[top] = o;
+                    cursors[top++] = 0;
+                }
+                else {
+                    nodes[--top] = null;
+                    if(v.visit(f) == Action.STOP) return f;
+                }
+            }
+            return null;
+        } finally {
+            Arrays.fill(nodes, 0, top, null);
+        }
+    }
+
+    private Formula visitLevelOrder(Formula root, Visitor v) {
+        /* the queue is the slice of the buffer between head and tail, which wraps around */
+        int head = 0, size = 0;
+        nodes[0] = root;
+        size++;
+        try {
+            while(size > 0) {
+                Formula f = nodes[head];
+                nodes[head] = null;
+                head = (head + 1) % nodes.length;
+                size--;
+                Action a = v.visit(f);
+                if(a == Action.STOP) return f;
+                if(a == Action.SKIP_OPERANDS) continue;
+                for(int i = 0; i < f.getArity(); i++) {
+                    Formula o = f.getOperand(i);
+                    if(o == null) continue;
+                    if(size == nodes.length) {
+                        head = growQueue(head);
+                    }
+                    nodes[(head + size) % nodes.length] = o;
+                    size++;
+                }
+            }
+            return null;
+        } finally {
+            for(int i = 0; i < size; i++) nodes[(head + i) % nodes.length] = null;
+        }
+    }
+
+    /** Doubles the capacity of the stack buffers. */
+    private void grow() {
+        nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        cursors = Arrays.copyOf(cursors, cursors.length * 2);
+    }
+
+    /** Doubles the capacity of the full queue starting at head, unwrapping it.
+     * @return Returns the new head of the queue */
+    private int growQueue(int head) {
+        Formula[] n = new Formula[nodes.length * 2];
+        int k = nodes.length - head;
+        System.arraycopy(nodes, head, n, 0, k);
+        System.arraycopy(nodes, 0, n, k, head);
+        nodes = n;
+        cursors = Arrays.copyOf(cursors, n.length);
+        return 0;
+    }
+
+    private static FormulaTraversal acquire() {
+        FormulaTraversal t = POOL.get().poll();
+        return t != null ? t : new FormulaTraversal();
+    }
+
+    private static void release(FormulaTraversal t) {
+        t.values.clear();
+        POOL.get().push(t);
+    }
+
+}
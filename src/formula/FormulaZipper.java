@@ -0,0 +1,133 @@
+package formula;
+
+/** The FormulaZipper class represents a position inside a hash-consed formula.
+ * Since an ImmutableFormula may be shared by many parents, the path from the root
+ * to the focused node is kept by the zipper rather than by the nodes.
+ * Zippers are immutable: moving or replacing the focus returns a new zipper,
+ * the ancestors of a replaced focus are rebuilt through the table when moving up.
+ * @see ImmutableFormula */
+public final class FormulaZipper {
+
+    private static final int OPERAND = 0;
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+
+    private final FormulaTable table;
+
+    /** The focused formula */
+    private final ImmutableFormula focus;
+
+    /** The zipper of the parent of the focus, null if the focus is the root */
+    private final FormulaZipper parent;
+
+    /** The position of the focus among the operands of its parent */
+    private final int side;
+
+    private FormulaZipper(FormulaTable t, ImmutableFormula f, FormulaZipper p, int s) {
+        table = t; focus = f; parent = p; side = s;
+    }
+
+    /** @return Returns a zipper focused on the root formula f
+     * @param t the table which built f
+     * @param f the root formula */
+    public static FormulaZipper of(FormulaTable t, ImmutableFormula f) {
+        return new FormulaZipper(t, f, null, OPERAND);
+    }
+
+    /** @return Returns the focused formula */
+    public ImmutableFormula getFocus() { return focus; }
+
+    /** @return Returns true if, and only if, the focus is the root formula */
+    public boolean isRoot() { return parent == null; }
+
+    /** @return Returns true if, and only if, the focus is the left operand of its parent */
+    public boolean isLeftChild() {
+        return parent != null && parent.focus.getArity() == 2 && side == LEFT;
+    }
+
+    /** @return Returns true if, and only if, the focus is the right operand of its parent */
+    public boolean isRightChild() {
+        return parent != null && side == RIGHT;
+    }
+
+    /** @return Returns the number of ancestors of the focus */
+    public int depth() {
+        int d = 0;
+        FormulaZipper z = parent;
+        while(z != null) { d++; z = z.parent; }
+        return d;
+    }
+
+    /** @return Returns the zipper focused on the operand of a unary focus */
+    public FormulaZipper operand() {
+        if(focus.getArity() != 1) throw new IllegalStateException(
+                "The focus must be a unary formula"
+        );
+        return new FormulaZipper(table, focus.getOperand(), this, OPERAND);
+    }
+
+    /** @return Returns the zipper focused on the left operand of a binary focus */
+    public FormulaZipper left() {
+        if(focus.getArity() != 2) throw new IllegalStateException(
+                "The focus must be a binary formula"
+        );
+        return new FormulaZipper(table, focus.getLoperand(), this, LEFT);
+    }
+
+    /** @return Returns the zipper focused on the right operand of a binary focus */
+    public FormulaZipper right() {
+        if(focus.getArity() != 2) throw new IllegalStateException(
+                "The focus must be a binary formula"
+        );
+        return new FormulaZipper(table, focus.getRoperand(), this, RIGHT);
+    }
+
+    /** @return Returns the zipper focused on the parent of the focus, whose operand is
+     * the current focus, or null if the focus is the root */
+    public FormulaZipper up() {
+        if(parent == null) return null;
+        ImmutableFormula p = parent.focus;
+        ImmutableFormula np;
+        if(p.getArity() == 1) {
+            np = p.getOperand() == focus ? p : table.unary(p.getOperator(), focus);
+        }
+        else if(side == LEFT) {
+            np = p.getLoperand() == focus ? p : table.binary(p.getOperator(), focus, p.getRoperand());
+        }
+        else {
+            np = p.getRoperand() == focus ? p : table.binary(p.getOperator(), p.getLoperand(), focus);
+        }
+        return new FormulaZipper(table, np, parent.parent, parent.side);
+    }
+
+    /** @return Returns the zipper focused on the root, rebuilding the replaced ancestors */
+    public FormulaZipper top() {
+        FormulaZipper z = this;
+        while(!z.isRoot()) z = z.up();
+        return z;
+    }
+
+    /** @return Returns the root formula, rebuilding the replaced ancestors */
+    public ImmutableFormula root() { return this.top().focus; }
+
+    /** Replaces the focus with another formula.
+     * @return Returns a zipper in the same position focused on f
+     * @param f the formula that takes the place of the focus */
+    public FormulaZipper replace(ImmutableFormula f) {
+        return new FormulaZipper(table, f, parent, side);
+    }
+
+    /** @return Returns true if, and only if, some ancestor of the focus has operator op */
+    public boolean isNestedInside(Operator op) {
+        FormulaZipper z = parent;
+        while(z != null) {
+            if(z.focus.isOperator(op)) return true;
+            z = z.parent;
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() { return focus.toString(); }
+
+}
@@ -0,0 +1,204 @@
+package formula;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Objects;
+import static formula.Operator.*;
+import static formula.TimeConstant.*;
+
+/** The ImmutableFormula class represents an LTL formula as a node of a hash-consed DAG.
+ * Instances can only be created through a FormulaTable, which guarantees that two
+ * structurally identical formulae built by the same table are the same object:
+ * equality is identity and copies are free.
+ * Since a node may be shared by many parents it does not store its parent,
+ * the position of a node inside a formula is tracked by a FormulaZipper.
+ * It is a standalone representation: the separator rewrites Formula trees, and the formulae
+ * are moved between the two representations by FormulaTable.fromFormula and toFormula.
+ * @see FormulaTable
+ * @see FormulaZipper */
+public final class ImmutableFormula {
+
+    /** The top operator of the formula, null if the formula is atomic */
+    private final Operator operator;
+
+    /** The string image of the formula */
+    private final String image;
+
+    /** The left operand of a binary formula or the operand of a unary formula */
+    private final ImmutableFormula loperand;
+
+    /** The right operand of a binary formula */
+    private final ImmutableFormula roperand;
+
+    /** The time of the formula, computed once at construction */
+    private final TimeConstant time;
+
+    /** It is true if, and only if, the formula is separated */
+    private final boolean separated;
+
+    /** It is true if, and only if, the formula contains a past operator */
+    private final boolean containsPast;
+
+    /** It is true if, and only if, the formula contains a future operator */
+    private final boolean containsFuture;
+
+    /** The number of nodes of the tree the formula stands for */
+    private final int size;
+
+    private final int hash;
+
+    /** Initializes a newly created atomic ImmutableFormula with image img. */
+    ImmutableFormula(String img) {
+        this.operator = null;
+        this.image = img;
+        this.loperand = null;
+        this.roperand = null;
+        this.time = PRESENT;
+        this.separated = true;
+        this.containsPast = false;
+        this.containsFuture = false;
+        this.size = 1;
+        this.hash = img.hashCode();
+    }
+
+    /** Initializes a newly created unary ImmutableFormula with operator op and operand o. */
+    ImmutableFormula(Operator op, ImmutableFormula o) {
+        this.operator = op;
+        this.image = op.getImage();
+        this.loperand = o;
+        this.roperand = null;
+        this.time = determineTime(op, o.time);
+        this.containsPast = op.isPast() || o.containsPast;
+        this.containsFuture = op.isFuture() || o.containsFuture;
+        this.separated = switch (op.getTime()) {
+            case PAST -> !this.containsFuture;
+            case FUTURE -> !this.containsPast;
+            default -> o.separated;
+        };
+        this.size = 1 + o.size;
+        this.hash = 31 * op.ordinal() + o.hash;
+    }
+
+    /** Initializes a newly created binary ImmutableFormula with operator op,
+     * left operand lc and right operand rc. */
+    ImmutableFormula(Operator op, ImmutableFormula lc, ImmutableFormula rc) {
+        this.operator = op;
+        this.image = op.getImage();
+        this.loperand = lc;
+        this.roperand = rc;
+        this.time = determineTime(op, lc.time, rc.time);
+        this.containsPast = op.isPast() || lc.containsPast || rc.containsPast;
+        this.containsFuture = op.isFuture() || lc.containsFuture || rc.containsFuture;
+        this.separated = switch (op.getTime()) {
+            case PAST -> !this.containsFuture;
+            case FUTURE -> !this.containsPast;
+            default -> lc.separated && rc.separated;
+        };
+        this.size = 1 + lc.size + rc.size;
+        this.hash = 31 * (31 * op.ordinal() + lc.hash) + rc.hash;
+    }
+
+    /** @return Returns the top operator of the formula, null if the formula is atomic */
+    public Operator getOperator() { return operator; }
+
+    /** @return Returns the string image of the formula */
+    public String getImage() { return image; }
+
+    /** @return Returns true if, and only if, the formula is atomic */
+    public boolean isAtomic() { return operator == null; }
+
+    /** @return Returns true if, and only if, the top operator of the formula is op */
+    public boolean isOperator(Operator op) { return operator == op; }
+
+    /** @return Returns the number of operands of the formula */
+    public int getArity() { return operator == null ? 0 : operator.getArity(); }
+
+    /** @return Returns the operand of a unary formula */
+    public ImmutableFormula getOperand() { return loperand; }
+
+    /** @return Returns the left operand of a binary formula */
+    public ImmutableFormula getLoperand() { return loperand; }
+
+    /** @return Returns the right operand of a binary formula */
+    public ImmutableFormula getRoperand() { return roperand; }
+
+    public TimeConstant getTime() { return time; }
+
+    public boolean isPure() { return time != MIXED; }
+
+    public boolean isPure(TimeConstant t) { return time == t; }
+
+    public boolean isSeparated() { return separated; }
+
+    public boolean needSeparation() { return !separated; }
+
+    /** @return Returns the number of nodes of the tree represented by the formula,
+     * shared subformulae are counted once for each occurrence */
+    public int size() { return size; }
+
+    /** @return Returns the formula itself, since immutable formulae can be freely shared */
+    public ImmutableFormula deepCopy() { return this; }
+
+    /** @return Returns true if, and only if, f is the same formula of this.
+     * Formulae built by the same FormulaTable are equal if, and only if, they are the same object */
+    public boolean equalTo(ImmutableFormula f) { return this == f; }
+
+    /** @return Returns a mutable formula, equal to this, whose nodes are not shared.
+     * The nodes are translated bottom-up without recursion, as FormulaTable.fromFormula does,
+     * so that formulae nested thousands of levels deep do not overflow the call stack */
+    public Formula toFormula() {
+        /* the nodes are listed in pre order, visiting the right operands first,
+         * hence the reversed list is a post order visiting the left operands first */
+        ArrayList<ImmutableFormula> order = new ArrayList<>();
+        ArrayDeque<ImmutableFormula> stk = new ArrayDeque<>();
+        stk.push(this);
+        while(!stk.isEmpty()) {
+            ImmutableFormula f = stk.pop();
+            order.add(f);
+            if(f.loperand != null) stk.push(f.loperand);
+            if(f.roperand != null) stk.push(f.roperand);
+        }
+        ArrayDeque<Formula> done = new ArrayDeque<>();
+        for(int i = order.size() - 1; i >= 0; i--) {
+            ImmutableFormula f = order.get(i);
+            if(f.isAtomic()) done.push(new AtomicFormula(f.image));
+            else if(f.operator.isUnary()) done.push(new UnaryFormula(f.operator, done.pop()));
+            else {
+                Formula r = done.pop();
+                done.push(new BinaryFormula(f.operator, done.pop(), r));
+            }
+        }
+        return done.pop();
+    }
+
+    /** Two immutable formulae are equal if they have the same operator, the same image
+     * and the same operand objects, that is the key used by the FormulaTable. */
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof ImmutableFormula f)) return false;
+        return hash == f.hash
+                && operator == f.operator
+                && loperand == f.loperand
+                && roperand == f.roperand
+                && Objects.equals(image, f.image);
+    }
+
+    @Override
+    public int hashCode() { return hash; }
+
+    @Override
+    public String toString() {
+        if(this.isAtomic()) return image;
+        if(operator.isUnary()) return String.format("%s(%s)", operator, loperand);
+        String leftChild = loperand.isAtomic() ? loperand.toString() : String.format("(%s)", loperand);
+        String rightChild = roperand.isAtomic() ? roperand.toString() : String.format("(%s)", roperand);
+        if(this.isOperator(UNTIL) || this.isOperator(SINCE)) {
+            String swapString = leftChild;
+            leftChild = rightChild;
+            rightChild = swapString;
+        }
+        return String.format("%s %s %s", leftChild, operator, rightChild);
+    }
+
+}
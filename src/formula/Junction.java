@@ -59,6 +59,7 @@ public class Junction extends Path {
     /** The number of nodes under the junction with the same operator of y. */
     public int getK() {
         OperatorFormula y = (OperatorFormula) this.getY();
+        if(y.isOperator(UNTIL) || y.isOperator(SINCE)) return y.getPathMetrics().getK(y.getOperator());
         ArrayList<Path> paths = y.getPaths();
         OptionalInt k =  paths.stream().mapToInt(
                 p -> p.countOperatorOccurrences(y.getOperator())
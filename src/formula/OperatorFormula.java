@@ -1,9 +1,16 @@
 package formula;
 
+import java.util.*;
+
 public abstract class OperatorFormula extends Formula {
 
     private Operator operator;
 
+    /** The sum of the mixed hashes of the operands of the combination rooted in the formula,
+     * it is meaningful only when the operator is one of AND, OR, EQUIV
+     * @see #operandContribution(Formula) */
+    int combinationHash;
+
     public OperatorFormula(Operator op) {
         super();
         this.setOperator(op);
@@ -17,6 +24,9 @@ public abstract class OperatorFormula extends Formula {
     /** Sets the operator of the formula */
     public void setOperator(Operator op) {
         this.operator = op;
+        FormulaIndex.invalidate(this);
+        this.invalidateCaches();
+        this.updateOperatorCounts();
         this.setTime(op.getTime());
         this.setSeparation(true);
     }
@@ -29,16 +39,74 @@ public abstract class OperatorFormula extends Formula {
     public boolean isParentOf(Formula f){ return f.getParent() == this; }
 
     public boolean isAncestorOf(Formula f) {
+        if(FormulaIndex.sameLabels(this, f)) return this != f && FormulaIndex.contains(this, f);
         OperatorFormula p = f.getParent();
         while (p != null && p != this) p = p.getParent();
         return p == this;
     }
 
+    /** @return Returns true if, and only if, the operands of the formula
+     * are compared regardless of their order
+     * @see #equalTo(Formula) */
+    protected boolean isCombination() { return false; }
+
+    @Override
+    public String toString() { return FormulaTraversal.reduce(this, Formula::format); }
+
     /** @return Returns the image of the top operator of the formula */
     public String getImage(){ return operator.getImage(); }
 
     protected abstract void updateTime(Formula f);
 
+    /** Updates the number of past and future operators inside the formula
+     * from the ones of its operands. */
+    protected abstract void updateOperatorCounts();
+
     protected abstract void updateSeparation();
 
+    /** A computeStructuralHash subroutine.
+     * @return Returns the contribution of the operand f to the combination hash of the formula:
+     * an operand with the same operator contributes the hashes of its own operands,
+     * so that the hash does not depend on how the combination is nested
+     * @see #computeStructuralHash() */
+    protected int operandContribution(Formula f) {
+        if(f instanceof OperatorFormula of && of.isOperator(this.getOperator())) {
+            of.structuralHash();
+            return of.combinationHash;
+        }
+        return mix(f.structuralHash());
+    }
+
+    /** @return Returns true if, and only if, the two lists contain equal formulae,
+     * regardless of their order */
+    protected static boolean equalCombinations(ArrayList<Formula> fOperands, ArrayList<Formula> tOperands) {
+        if(fOperands.size() != tOperands.size()) return false;
+        /* the operands of f are grouped by structural hash, hence
+         * each operand of this is compared only with the operands
+         * of f having its same hash */
+        HashMap<Integer, LinkedList<Formula>> buckets = new HashMap<>();
+        for(Formula af : fOperands) {
+            buckets.computeIfAbsent(af.structuralHash(), h -> new LinkedList<>()).add(af);
+        }
+        for(Formula t : tOperands) {
+            LinkedList<Formula> b = buckets.get(t.structuralHash());
+            if(b == null || !removeEqual(b, t)) return false;
+        }
+        return true;
+    }
+
+    /** An equalCombinations subroutine. Removes from the list the first formula equal to t.
+     * @return Returns true if, and only if, a formula equal to t was found
+     * @see #equalCombinations(ArrayList, ArrayList) */
+    private static boolean removeEqual(LinkedList<Formula> l, Formula t) {
+        Iterator<Formula> itr = l.iterator();
+        while(itr.hasNext()) {
+            if(itr.next().equalTo(t)) {
+                itr.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -0,0 +1,153 @@
+package formula;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import static formula.Operator.*;
+
+/** The PathMetrics class summarizes the paths which go from the leaves of a formula to its root,
+ * so that the degree of the formula and the k values of the top junctions of its paths
+ * can be computed without enumerating the paths.
+ * The metrics of a formula are obtained from the ones of its operands, hence
+ * the metrics of all the nodes of a tree are computed with a single post-order visit.
+ * The paths are grouped by the operator of their top UNTIL/SINCE run and by their m value,
+ * for each group are kept the maximum k of the lowest node of the top run and the
+ * maximum k of the y node of the top junction.
+ * @see Path#getM()
+ * @see Path#getTopJunction()
+ * @see Junction#getK() */
+public final class PathMetrics {
+
+    private static final int UNTIL_INDEX = 0;
+    private static final int SINCE_INDEX = 1;
+
+    private static final PathMetrics ATOMIC = new PathMetrics(
+            0, 0, true, new int[2][0], new int[2][0]
+    );
+
+    /** The maximum number of UNTIL operators along a path of the formula */
+    private final int kUntil;
+
+    /** The maximum number of SINCE operators along a path of the formula */
+    private final int kSince;
+
+    /** It is true if, and only if, the formula has a path without UNTIL and SINCE operators */
+    private final boolean free;
+
+    /** runK[o][m] is the maximum k of the lowest node of the top run among the paths
+     * whose top run has operator o and whose value is m, -1 if there is no such path */
+    private final int[][] runK;
+
+    /** junctionK[o][m] is the maximum k of the y node of the top junction among the paths
+     * whose top run has operator o and whose value is m, -1 if there is no such path */
+    private final int[][] junctionK;
+
+    private PathMetrics(int kU, int kS, boolean free, int[][] runK, int[][] junctionK) {
+        this.kUntil = kU;
+        this.kSince = kS;
+        this.free = free;
+        this.runK = runK;
+        this.junctionK = junctionK;
+    }
+
+    /** @return Returns the metrics of an atomic formula */
+    public static PathMetrics atomic() { return ATOMIC; }
+
+    /** @return Returns the metrics of a unary formula whose operand has metrics o.
+     * Since no unary operator is UNTIL or SINCE the paths keep their metrics. */
+    public static PathMetrics unary(PathMetrics o) { return o; }
+
+    /** @return Returns the metrics of a binary formula with operator op whose operands have metrics l and r */
+    public static PathMetrics binary(Operator op, PathMetrics l, PathMetrics r) {
+        int kU = Math.max(l.kUntil, r.kUntil);
+        int kS = Math.max(l.kSince, r.kSince);
+        int n = Math.max(l.runK[UNTIL_INDEX].length, Math.max(l.runK[SINCE_INDEX].length,
+                Math.max(r.runK[UNTIL_INDEX].length, r.runK[SINCE_INDEX].length)));
+        int[][] runK = new int[2][];
+        int[][] junctionK = new int[2][];
+        for(int o = 0; o < 2; o++) {
+            runK[o] = merge(l.runK[o], r.runK[o], n);
+            junctionK[o] = merge(l.junctionK[o], r.junctionK[o], n);
+        }
+        if(!(op == UNTIL || op == SINCE)) {
+            return new PathMetrics(kU, kS, l.free || r.free, runK, junctionK);
+        }
+        if(op == UNTIL) kU += 1;
+        else kS += 1;
+        int k = op == UNTIL ? kU : kS;
+        int o = op == UNTIL ? UNTIL_INDEX : SINCE_INDEX;
+        int mo = 1 - o;
+        /* the paths of the run of op keep their metrics,
+         * the ones of the mirror run start a new run of op: m increases by one and
+         * the lowest node of the old top run becomes the y node of the top junction,
+         * the ones without runs start a run of op with m equals to zero */
+        int[] newRunK = Arrays.copyOf(runK[o], n + 1);
+        int[] newJunctionK = Arrays.copyOf(junctionK[o], n + 1);
+        if(n + 1 > runK[o].length) {
+            Arrays.fill(newRunK, runK[o].length, n + 1, -1);
+            Arrays.fill(newJunctionK, junctionK[o].length, n + 1, -1);
+        }
+        for(int m = 0; m < n; m++) {
+            if(runK[mo][m] >= 0) {
+                newRunK[m + 1] = k;
+                newJunctionK[m + 1] = Math.max(newJunctionK[m + 1], runK[mo][m]);
+            }
+        }
+        if(l.free || r.free) newRunK[0] = k;
+        runK[o] = trim(newRunK);
+        junctionK[o] = trim(newJunctionK);
+        runK[mo] = new int[0];
+        junctionK[mo] = new int[0];
+        return new PathMetrics(kU, kS, false, runK, junctionK);
+    }
+
+    /** A binary subroutine.
+     * @return Returns the element-wise maximum of a and b, of length n */
+    private static int[] merge(int[] a, int[] b, int n) {
+        int[] c = new int[n];
+        for(int i = 0; i < n; i++) {
+            int ai = i < a.length ? a[i] : -1;
+            int bi = i < b.length ? b[i] : -1;
+            c[i] = Math.max(ai, bi);
+        }
+        return c;
+    }
+
+    /** A binary subroutine.
+     * @return Returns the array without the trailing -1 values */
+    private static int[] trim(int[] a) {
+        int n = a.length;
+        while(n > 0 && a[n - 1] < 0) n--;
+        return n == a.length ? a : Arrays.copyOf(a, n);
+    }
+
+    /** @return Returns the maximum number of occurrences of op along a path of the formula,
+     * op must be one of UNTIL, SINCE */
+    public int getK(Operator op) {
+        if(op == UNTIL) return kUntil;
+        if(op == SINCE) return kSince;
+        throw new IllegalArgumentException(
+                String.format("The operator must be one of U, S but is %s", op)
+        );
+    }
+
+    /** @return Returns the maximum m value of the paths of the formula
+     * @see Path#getM() */
+    public int degree() {
+        return Math.max(0, Math.max(runK[UNTIL_INDEX].length, runK[SINCE_INDEX].length) - 1);
+    }
+
+    /** @return Returns the maximum k value of the top junctions of the paths whose m value is m
+     * @throws NoSuchElementException if m is positive and no path has m value m */
+    public int maxKofDegreeM(int m) {
+        if(m == 0) return 0;
+        int k = -1;
+        for(int o = 0; o < 2; o++) {
+            if(m < junctionK[o].length) k = Math.max(k, junctionK[o][m]);
+        }
+        if(k < 0) throw new NoSuchElementException(
+                String.format("The formula has no path of degree %d", m)
+        );
+        return k;
+    }
+
+}
@@ -0,0 +1,29 @@
+package formula;
+
+import java.io.PrintStream;
+
+/** The RuleTrace class reports the names of the rewriting rules applied by the separator and the normalizer,
+ * the lemmata, the eliminations and the boolean laws, on a stream.
+ * The trace is off by default, so that the separations running on many threads, as the ones of the batch
+ * pipeline and of the server, do not interleave their rules on the standard output;
+ * the command line switches it on for the tasks separating a formula at a time. */
+public final class RuleTrace {
+
+    /** The stream of the trace, null when the trace is off */
+    private static volatile PrintStream out;
+
+    private RuleTrace() {}
+
+    /** Sets the stream on which the rules are reported, null to switch the trace off. */
+    public static void setOutput(PrintStream s) { out = s; }
+
+    /** @return Returns true if, and only if, the trace is on */
+    public static boolean isOn() { return out != null; }
+
+    /** Reports the rule named name, if the trace is on. */
+    public static void rule(String name) {
+        PrintStream s = out;
+        if(s != null) s.println(name);
+    }
+
+}
@@ -1,5 +1,6 @@
 package formula;
 
+import java.util.List;
 import static formula.TimeConstant.*;
 
 /** The UnaryFormula class represents an LTL formula which the top operator is of arity one (unary).
@@ -45,6 +46,10 @@ public class UnaryFormula extends OperatorFormula {
         this.setTime(determineTime(this.getOperator(), o.getTime()));
     }
 
+    protected void updateOperatorCounts() {
+        this.countOperators(this.getOperator(), operand, null);
+    }
+
     protected void updateSeparation() {
         TimeConstant operatorTime = this.getOperator().getTime();
         switch (operatorTime) {
@@ -55,26 +60,36 @@ public class UnaryFormula extends OperatorFormula {
         }
     }
 
-    @Override
-    public String toString() {
-        return String.format("%s(%s)", this.getOperator(), this.getOperand());
+    public int getArity() { return 1; }
+
+    public Formula getOperand(int i) {
+        if(i != 0) throw new IndexOutOfBoundsException(
+                String.format("A unary formula has no operand %d", i)
+        );
+        return operand;
+    }
+
+    protected String format(List<String> operands) {
+        return String.format("%s(%s)", this.getOperator(), operands.get(0));
     }
 
     @Override
-    public UnaryFormula deepCopy() {
-        return new UnaryFormula(
-                this.getOperator(),
-                this.operand.deepCopy()
-        );
+    public UnaryFormula deepCopy() { return (UnaryFormula) super.deepCopy(); }
+
+    protected UnaryFormula copy(List<Formula> os) {
+        return new UnaryFormula(this.getOperator(), os.get(0));
     }
 
-    public boolean equalTo(Formula f) {
-        if(f instanceof UnaryFormula uf){
-            boolean sameOperator = uf.getOperator().equals(this.getOperator());
-            boolean equalOperands = uf.getOperand().equalTo(this.getOperand());
-            return sameOperator && equalOperands;
-        }
-        return false;
+    protected boolean equalTop(Formula f) {
+        return f instanceof UnaryFormula uf
+                && uf.structuralHash() == this.structuralHash()
+                && uf.getOperator().equals(this.getOperator());
+    }
+
+    protected PathMetrics computePathMetrics() { return PathMetrics.unary(operand.getPathMetrics()); }
+
+    protected int computeStructuralHash() {
+        return mix(31 * this.getOperator().ordinal() + operand.structuralHash());
     }
 
 }
@@ -0,0 +1,233 @@
+package main;
+
+import formula.Formula;
+import parser.FormulaReader;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import separator.SeparationResult;
+import separator.SeparationSettings;
+import separator.SeparationStore;
+import separator.TemplateSeparator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/** The BatchPipeline class separates the formulae of a batch input on a pool of threads.
+ * Each formula goes through conversion, separation, normalization and the computation of
+ * its pure formulae matrix on one of the threads, by the stateless LtlpSeparator.
+ * The results are written as JSON Lines, one object for each formula in the order of the input:
+ * the formulae are read while the previous ones are being separated, and the number of the
+ * formulae whose result has not been written yet is bounded.
+ * When a SeparationStore is given, the formulae it holds are not separated again,
+ * and when a TemplateSeparator is given, the formulae are separated as instances of their templates:
+ * their separations are equivalent to, but not always the same as, the ones of LtlpSeparator,
+ * hence they are not put in the store.
+ * The formulae are separated by the given SeparationSettings, and the store is used only by the default ones.
+ * @see FormulaReader
+ * @see LtlpSeparator */
+public class BatchPipeline {
+
+    /** The number of formulae, for each thread, which may be pending before the reading waits the writing */
+    private static final int PENDING_PER_THREAD = 4;
+
+    /** The result of a formula, already written as a JSON object */
+    private static final class Result {
+        private final String json;
+        private final boolean separated;
+        private final long nanos;
+
+        private Result(String json, boolean separated, long nanos) {
+            this.json = json;
+            this.separated = separated;
+            this.nanos = nanos;
+        }
+    }
+
+    /** The aggregate statistics of a run */
+    public static final class Summary {
+
+        private final int formulae;
+        private final int failed;
+        private final long wallNanos;
+        private final long busyNanos;
+
+        private Summary(int formulae, int failed, long wallNanos, long busyNanos) {
+            this.formulae = formulae;
+            this.failed = failed;
+            this.wallNanos = wallNanos;
+            this.busyNanos = busyNanos;
+        }
+
+        /** @return Returns the number of the formulae read, malformed ones included */
+        public int getFormulae() { return formulae; }
+
+        /** @return Returns the number of the formulae which are malformed, whose separation failed
+         * or left them unseparated */
+        public int getFailed() { return failed; }
+
+        /** @return Returns the elapsed time of the run, in seconds */
+        public double getSeconds() { return wallNanos / 1e9; }
+
+        /** @return Returns the number of the formulae processed for each second */
+        public double getThroughput() { return wallNanos == 0 ? 0 : formulae / this.getSeconds(); }
+
+        /** @return Returns the sum of the times spent on each formula divided by the elapsed time,
+         * that is the average number of threads at work */
+        public double getParallelism() { return wallNanos == 0 ? 0 : (double) busyNanos / wallNanos; }
+
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%d formulae, %d failed, in %.3f s: %.1f formulae/s, parallelism %.1f",
+                    formulae, failed, this.getSeconds(), this.getThroughput(), this.getParallelism()
+            );
+        }
+
+    }
+
+    /** A source of entries */
+    private interface Input {
+        int read(FormulaReader r, Consumer<FormulaReader.Entry> c) throws IOException;
+    }
+
+    private final int threads;
+
+    /** The store of the separations of the previous runs, null if there is none */
+    private final SeparationStore store;
+
+    /** The separator of the templates of the formulae, null if they are separated on their own */
+    private final TemplateSeparator templates;
+
+    /** The settings by which the formulae are separated */
+    private final SeparationSettings settings;
+
+    /** Initializes a newly created BatchPipeline running on the given number of threads. */
+    public BatchPipeline(int threads) { this(threads, null, null, SeparationSettings.DEFAULT); }
+
+    /** Initializes a newly created BatchPipeline running on the given number of threads,
+     * which separates the formulae by the given settings, looks up and appends the separations
+     * in the store, unless it is null or the settings are not the default ones, and separates
+     * the formulae by their templates, unless templates is null, which has its own settings. */
+    public BatchPipeline(int threads, SeparationStore store, TemplateSeparator templates, SeparationSettings settings) {
+        if(threads < 1) throw new IllegalArgumentException(
+                String.format("The number of threads must be positive but it is %d", threads)
+        );
+        this.threads = threads;
+        this.store = store;
+        this.templates = templates;
+        this.settings = Objects.requireNonNull(settings);
+    }
+
+    /** Separates the formulae of the ASCII file p and writes their results to out.
+     * @return Returns the statistics of the run */
+    public Summary run(Path p, Writer out) throws IOException, InterruptedException {
+        return this.run((r, c) -> r.read(p, c), out);
+    }
+
+    /** Separates the formulae of the ASCII stream in and writes their results to out.
+     * @return Returns the statistics of the run */
+    public Summary run(InputStream in, Writer out) throws IOException, InterruptedException {
+        return this.run((r, c) -> r.read(in, c), out);
+    }
+
+    private Summary run(Input input, Writer out) throws IOException, InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "separator-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ArrayDeque<Future<Result>> pending = new ArrayDeque<>();
+        long[] totals = new long[2]; // the failed formulae and the time spent on the formulae
+        long start = System.nanoTime();
+        try {
+            int n = input.read(new FormulaReader(), e -> {
+                pending.add(pool.submit(() -> this.process(e)));
+                try {
+                    this.write(pending, out, totals, threads * PENDING_PER_THREAD);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+            });
+            this.write(pending, out, totals, 0);
+            out.flush();
+            return new Summary(n, (int) totals[0], System.nanoTime() - start, totals[1]);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Writes the results at the head of the pending ones, in order, while they are done
+     * or while there are more than max pending results. */
+    private void write(ArrayDeque<Future<Result>> pending, Writer out, long[] totals, int max)
+            throws IOException, InterruptedException {
+        while(!pending.isEmpty() && (pending.size() > max || pending.peek().isDone())) {
+            Result r;
+            try {
+                r = pending.poll().get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            if(!r.separated) totals[0]++;
+            totals[1] += r.nanos;
+            out.write(r.json);
+            out.write('\n');
+        }
+    }
+
+    /** Runs the stages of the pipeline on the formula of the entry e.
+     * @return Returns the result of the formula */
+    private Result process(FormulaReader.Entry e) {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"number\":").append(e.getNumber()).append(",\"line\":").append(e.getLine());
+        if(!e.isParsed()) {
+            json.append(",\"input\":").append(Json.quote(e.getSource()));
+            json.append(",\"error\":").append(Json.quote(e.getError().getMessage())).append('}');
+            return new Result(json.toString(), false, 0);
+        }
+        json.append(",\"input\":").append(Json.quote(e.getFormula().toString()));
+        long start = System.nanoTime();
+        try {
+            SeparationResult r = this.separate(e.getFormula());
+            Json.appendResult(json, r);
+            json.append('}');
+            /* a formula left unseparated is a failure, as in the strategy benchmark */
+            return new Result(json.toString(), r.getSeparated().isSeparated(), r.getNanos());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        } catch (IOException | RuntimeException | StackOverflowError | OutOfMemoryError | AssertionError ex) {
+            /* a failure, an assertion of the rules included, is reported on the formula and the batch goes on */
+            long nanos = System.nanoTime() - start;
+            json.append(",\"error\":").append(Json.quote(ex.toString())).append('}');
+            return new Result(json.toString(), false, nanos);
+        }
+    }
+
+    /** @return Returns the separation of f, looked up in the store and performed if it is missing,
+     * the separations of the templates are not put in the store */
+    private SeparationResult separate(Formula f) throws IOException, InterruptedException {
+        SeparationStore s = settings.isCached() ? store : null;
+        SeparationResult r = s != null ? s.get(f) : null;
+        if(r != null) return r;
+        r = templates != null ? templates.separate(f) : LtlpSeparator.separate(f, SeparationCache.getDefault(), settings);
+        if(s != null && templates == null) s.put(r);
+        return r;
+    }
+
+}
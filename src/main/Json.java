@@ -0,0 +1,206 @@
+package main;
+
+import formula.Formula;
+import separator.PureFormulaeMatrix;
+import separator.SeparationResult;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/** The Json class writes and reads the JSON messages of the batch pipeline and of the separation server.
+ * The objects are read as maps, the arrays as lists, the numbers as doubles. */
+final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) { this.text = text; }
+
+    /** @return Returns the JSON string literal of s */
+    static String quote(String s) {
+        StringBuilder q = new StringBuilder(s.length() + 2).append('"');
+        for(int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> q.append("\\\"");
+                case '\\' -> q.append("\\\\");
+                case '\n' -> q.append("\\n");
+                case '\r' -> q.append("\\r");
+                case '\t' -> q.append("\\t");
+                default -> {
+                    if(c < 0x20) q.append(String.format("\\u%04x", (int) c));
+                    else q.append(c);
+                }
+            }
+        }
+        return q.append('"').toString();
+    }
+
+    /** @return Returns the JSON text of the value v: a map, a list, a string, a number, a boolean or null */
+    static String write(Object v) {
+        if(v == null) return "null";
+        if(v instanceof String s) return quote(s);
+        if(v instanceof Double d && d == Math.rint(d) && !Double.isInfinite(d)) return String.valueOf(d.longValue());
+        if(v instanceof Number || v instanceof Boolean) return v.toString();
+        StringBuilder sb = new StringBuilder();
+        if(v instanceof Map<?, ?> m) {
+            sb.append('{');
+            for(Map.Entry<?, ?> e : m.entrySet()) {
+                if(sb.length() > 1) sb.append(',');
+                sb.append(quote(e.getKey().toString())).append(':').append(write(e.getValue()));
+            }
+            return sb.append('}').toString();
+        }
+        if(v instanceof List<?> l) {
+            sb.append('[');
+            for(Object o : l) {
+                if(sb.length() > 1) sb.append(',');
+                sb.append(write(o));
+            }
+            return sb.append(']').toString();
+        }
+        throw new IllegalArgumentException(String.format("The value %s has no JSON representation", v));
+    }
+
+    /** Appends to the JSON object json the fields of the result r: the separated formula,
+     * the normalized one, the degree, the matrix and the time spent in milliseconds. */
+    static void appendResult(StringBuilder json, SeparationResult r) {
+        PureFormulaeMatrix m = r.getMatrix();
+        json.append(",\"separated\":").append(quote(r.getSeparated().toString()));
+        json.append(",\"normalized\":").append(quote(r.getNormalized().toString()));
+        json.append(",\"degree\":").append(m.getDegree());
+        json.append(",\"matrix\":[");
+        for(int i = 0; i < m.getDegree(); i++) {
+            Formula[] t = m.getTriple(i);
+            if(i > 0) json.append(',');
+            json.append('[').append(quote(t[0].toString()))
+                    .append(',').append(quote(t[1].toString()))
+                    .append(',').append(quote(t[2].toString())).append(']');
+        }
+        json.append("],\"ms\":").append(String.format(Locale.ROOT, "%.3f", r.getNanos() / 1e6));
+    }
+
+    /** @return Returns the value written in the JSON text s
+     * @throws IllegalArgumentException if s is not well formed */
+    static Object read(String s) {
+        Json j = new Json(s);
+        Object v = j.value();
+        j.skipWhitespace();
+        if(j.pos != s.length()) throw j.error("the end of the text");
+        return v;
+    }
+
+    /** @return Returns the object written in the JSON text s
+     * @throws IllegalArgumentException if s is not a well formed object */
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readObject(String s) {
+        Object v = read(s);
+        if(!(v instanceof Map)) throw new IllegalArgumentException("The JSON text is not an object");
+        return (Map<String, Object>) v;
+    }
+
+    private Object value() {
+        this.skipWhitespace();
+        if(pos == text.length()) throw this.error("a value");
+        char c = text.charAt(pos);
+        if(c == '{') return this.object();
+        if(c == '[') return this.array();
+        if(c == '"') return this.string();
+        if(text.startsWith("true", pos)) { pos += 4; return Boolean.TRUE; }
+        if(text.startsWith("false", pos)) { pos += 5; return Boolean.FALSE; }
+        if(text.startsWith("null", pos)) { pos += 4; return null; }
+        return this.number();
+    }
+
+    private Map<String, Object> object() {
+        LinkedHashMap<String, Object> m = new LinkedHashMap<>();
+        pos++;
+        this.skipWhitespace();
+        if(this.consume('}')) return m;
+        do {
+            this.skipWhitespace();
+            if(pos == text.length() || text.charAt(pos) != '"') throw this.error("a string");
+            String k = this.string();
+            this.skipWhitespace();
+            if(!this.consume(':')) throw this.error("':'");
+            m.put(k, this.value());
+            this.skipWhitespace();
+        } while(this.consume(','));
+        if(!this.consume('}')) throw this.error("'}'");
+        return m;
+    }
+
+    private List<Object> array() {
+        ArrayList<Object> l = new ArrayList<>();
+        pos++;
+        this.skipWhitespace();
+        if(this.consume(']')) return l;
+        do {
+            l.add(this.value());
+            this.skipWhitespace();
+        } while(this.consume(','));
+        if(!this.consume(']')) throw this.error("']'");
+        return l;
+    }
+
+    private String string() {
+        StringBuilder sb = new StringBuilder();
+        pos++;
+        while(pos < text.length()) {
+            char c = text.charAt(pos++);
+            if(c == '"') return sb.toString();
+            if(c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if(pos == text.length()) break;
+            char e = text.charAt(pos++);
+            switch (e) {
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'u' -> {
+                    if(pos + 4 > text.length()) throw this.error("four hexadecimal digits");
+                    sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    pos += 4;
+                }
+                default -> sb.append(e);
+            }
+        }
+        throw this.error("'\"'");
+    }
+
+    private Double number() {
+        int start = pos;
+        while(pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw this.error("a value");
+        }
+    }
+
+    private boolean consume(char c) {
+        if(pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while(pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private IllegalArgumentException error(String expected) {
+        return new IllegalArgumentException(
+                String.format("Malformed JSON at position %d, expecting %s", pos, expected)
+        );
+    }
+
+}
@@ -2,20 +2,32 @@ package main;
 
 import converter.FormulaConverter;
 import formula.Formula;
+import formula.RuleTrace;
 import graphviz.GraphViz;
 import org.apache.commons.cli.*;
+import parser.FormulaParser;
+import parser.FormulaReader;
 import parser.ParseException;
-import parser.Parser;
-import parser.SimpleNode;
+import separator.BuiltinStrategy;
 import separator.FormulaNormalizer;
 import separator.FormulaSeparator;
 import separator.PureFormulaeMatrix;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import separator.SeparationResult;
+import separator.SeparationSettings;
+import separator.SeparationStore;
+import separator.TemplateSeparator;
 import java.io.IOException;
-import java.io.InputStream;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.ExecutionException;
-import static formula.Formula.parseTreeToFormula;
-import static params.InputManager.readFile;
+import java.util.function.Consumer;
 import static params.OptionsManager.initializeOptions;
 import static params.OutputManager.*;
 
@@ -23,13 +35,23 @@ public class Main {
 
     private static final int DEFAULT_PROMPT_WIDTH = 160;
     private static final String DEFAULT_ENCODING = "png";
-    private static final InputStream DEFAULT_INPUT_SOURCE = System.in;
     private static final String DEFAULT_OUTPUT_FILENAME = "out.";
-    private static final Parser parser = new Parser(DEFAULT_INPUT_SOURCE);
+    private static final int MAX_TEMPLATES = 1024;
+    private static final int DEFAULT_BEAM_BUDGET = 64;
+    private static final FormulaParser parser = new FormulaParser();
     private static final FormulaConverter converter = new FormulaConverter();
     private static final FormulaSeparator separator = new FormulaSeparator();
     private static final FormulaNormalizer normalizer = new FormulaNormalizer();
 
+    /** The client of the server performing the tasks, null when they are performed locally */
+    private static SeparationClient client;
+
+    /** The store of the separations of the previous runs, null when they are not persisted */
+    private static SeparationStore store;
+
+    /** The settings of the separations, the ones of the options */
+    private static SeparationSettings settings = SeparationSettings.DEFAULT;
+
     public static void main(String[] args) throws ParseException, IllegalArgumentException {
 
         String header = "Separates an LTLp formula into a combination of pure formulae and generates the corresponding separated automata set \n\n";
@@ -45,7 +67,8 @@ public class Main {
 
         CommandLineParser cliparser = new DefaultParser();
 
-        InputStream inputSource = DEFAULT_INPUT_SOURCE;
+        /* the standard input is read when the input file is null */
+        String inputFile = null;
         String outFile = DEFAULT_OUTPUT_FILENAME;
         String outputEncoding = DEFAULT_ENCODING;
 
@@ -53,54 +76,214 @@ public class Main {
 
             CommandLine cmd = cliparser.parse(options, args);
             if(cmd.hasOption("h")) formatter.printHelp( "LTLpSepartor", header, options, footer, true);
-            if(cmd.hasOption("iF")) inputSource = readFile(cmd.getOptionValue("iF"));
+            if(cmd.hasOption("iF")) inputFile = cmd.getOptionValue("iF");
             if(cmd.hasOption("oF") && cmd.getOptionValue("oF").length() != 0) {
                 outFile = cmd.getOptionValue("oF") + ".";
             }
             if(cmd.hasOption("oE")){
                 outputEncoding = cmd.getOptionValue("oE");
             }
-            if(cmd.hasOption("t")){
-                Formula result = parseFormula(inputSource);
-                outputTask(result, outFile, outputEncoding);
+            /* the applied rules are printed by the tasks separating a formula at a time */
+            if(!cmd.hasOption("S") && !cmd.hasOption("j") && !cmd.hasOption("cS")) RuleTrace.setOutput(System.out);
+            settings = searchSettings(cmd);
+            settings.applyTo(separator);
+            if(cmd.hasOption("S")) {
+                serverTask(cmd.getOptionValue("S"));
+                return;
             }
-            if(cmd.hasOption("c")) {
-                Formula result = performConversion(parseFormula(inputSource));
-                outputTask(result, outFile, outputEncoding);
-            }
-            if(cmd.hasOption("s")) {
-                Formula result = performSeparation(
-                        performConversion(
-                                parseFormula(inputSource)
-                        )
+            if(cmd.hasOption("C")) {
+                /* the server separates by the settings it has been started with */
+                if(cmd.hasOption("st") || cmd.hasOption("B")) throw new org.apache.commons.cli.ParseException(
+                        "The -st and -B options are not sent to the server, they must be given to the one of -S"
                 );
-                //result = converter.backConversion(result);
-                outputTask(result, outFile, outputEncoding);
+                client = new SeparationClient(Integer.parseInt(cmd.getOptionValue("C")));
+            }
+            if(cmd.hasOption("P")) store = SeparationStore.open(Path.of(cmd.getOptionValue("P")));
+            if(cmd.hasOption("cS")) compareStrategiesTask(inputFile);
+            else if(cmd.hasOption("j")) parallelBatchTask(cmd.getOptionValue("j"), cmd.hasOption("T"), inputFile, outFile);
+            else if(cmd.hasOption("b")) batchTask(cmd, inputFile, outFile, outputEncoding);
+            else if(cmd.hasOption("t") || cmd.hasOption("c") || cmd.hasOption("s") || cmd.hasOption("a")) {
+                formulaTask(cmd, parseFormula(inputFile), outFile, outputEncoding);
             }
-            if(cmd.hasOption("a")) {
-                Formula result = performNormalization(
+        } catch (org.apache.commons.cli.ParseException | IOException | InterruptedException | ExecutionException e) {
+            e.printStackTrace();
+        } finally {
+            if(client != null) {
+                try {
+                    client.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            if(store != null) {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /** Performs on the formula phi the task selected by the options of cmd. */
+    private static void formulaTask(CommandLine cmd, Formula phi, String outFile, String outputEncoding)
+            throws IOException, ExecutionException, InterruptedException {
+        if(cmd.hasOption("t")){
+            outputTask(phi, outFile, outputEncoding);
+        }
+        if(cmd.hasOption("c")) {
+            Formula result = client != null
+                    ? remoteFormula(client.request("convert", phi.toString()), "converted")
+                    : performConversion(phi);
+            outputTask(result, outFile, outputEncoding);
+        }
+        if(cmd.hasOption("s")) {
+            Formula result;
+            if(client != null) result = remoteFormula(client.request("separate", phi.toString()), "separated");
+            else if(store != null && settings.isCached()) result = storedSeparation(phi).getSeparated();
+            else result = performSeparation(performConversion(phi));
+            //result = converter.backConversion(result);
+            outputTask(result, outFile, outputEncoding);
+        }
+        if(cmd.hasOption("a")) {
+            Formula result;
+            PureFormulaeMatrix m;
+            if(client != null) {
+                Map<String, Object> answer = client.request("separate", phi.toString());
+                result = remoteFormula(answer, "normalized");
+                m = remoteMatrix(answer);
+            }
+            else if(store != null && settings.isCached()) {
+                SeparationResult r = storedSeparation(phi);
+                result = r.getNormalized();
+                m = r.getMatrix();
+            }
+            else {
+                result = performNormalization(
                         performSeparation(
-                                performConversion(
-                                        parseFormula(inputSource)
-                                )
+                                performConversion(phi)
                         )
                 );
-                PureFormulaeMatrix m = normalizer.getPureFormulaeMatrix(result);
-                matrixToJsonFile(m);
-                //result = converter.backConversion(result);
-                outputTask(result, outFile, outputEncoding);
-                dfaOutput(m);
+                m = normalizer.getPureFormulaeMatrix(result);
             }
-        } catch (org.apache.commons.cli.ParseException | IOException | InterruptedException | ExecutionException e) {
-            e.printStackTrace();
+            matrixToJsonFile(m);
+            //result = converter.backConversion(result);
+            outputTask(result, outFile, outputEncoding);
+            dfaOutput(m);
+        }
+    }
+
+    /** Performs the task selected by the options of cmd on each formula of the input,
+     * the outputs of the n-th formula are saved with the number n after the output filename.
+     * The malformed formulae and the failed tasks are reported and skipped. */
+    private static void batchTask(CommandLine cmd, String inputFile, String outFile, String outputEncoding)
+            throws IOException {
+        FormulaReader reader = new FormulaReader(parser);
+        int[] skipped = {0};
+        Consumer<FormulaReader.Entry> task = e -> {
+            if(!e.isParsed()) {
+                skipped[0]++;
+                System.err.printf("Formula %d at line %d skipped, \"%s\": %s%n",
+                        e.getNumber(), e.getLine(), e.getSource(), e.getError().getMessage());
+                return;
+            }
+            System.out.printf("Formula %d: %s%n", e.getNumber(), e.getFormula());
+            try {
+                formulaTask(cmd, e.getFormula(), outFile + e.getNumber() + ".", outputEncoding);
+            } catch (IOException | ExecutionException | RuntimeException ex) {
+                skipped[0]++;
+                System.err.printf("Formula %d at line %d failed: %s%n", e.getNumber(), e.getLine(), ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+        };
+        int n = inputFile != null ? reader.read(Path.of(inputFile), task) : reader.read(System.in, task);
+        System.out.printf("%d formulae read, %d skipped.%n", n, skipped[0]);
+    }
+
+    /** Separates the formulae of the input on the given number of threads, all the available
+     * processors when it is 0, and saves their results as JSON Lines in the output file.
+     * The formulae are separated as instances of their templates if byTemplates is true. */
+    private static void parallelBatchTask(String threads, boolean byTemplates, String inputFile, String outFile)
+            throws IOException, InterruptedException {
+        int n = Integer.parseInt(threads);
+        if(n == 0) n = Runtime.getRuntime().availableProcessors();
+        TemplateSeparator templates = byTemplates ? new TemplateSeparator(MAX_TEMPLATES, settings) : null;
+        BatchPipeline pipeline = new BatchPipeline(n, store, templates, settings);
+        String file = outFile + "jsonl";
+        try (Writer out = Files.newBufferedWriter(Path.of(file))) {
+            BatchPipeline.Summary summary = inputFile != null
+                    ? pipeline.run(Path.of(inputFile), out)
+                    : pipeline.run(System.in, out);
+            System.out.println("Results saved in " + file);
+            System.out.println(summary);
+            System.out.println(SeparationCache.getDefault());
+            if(templates != null) System.out.println(templates);
+        }
+    }
+
+    /** Serves the separation requests on the given port until the process is terminated. */
+    private static void serverTask(String port) throws IOException {
+        try (SeparationServer server = new SeparationServer(Integer.parseInt(port), settings)) {
+            System.out.println("Separation server listening on port " + server.getPort());
+            server.serve();
         }
     }
 
-    private static Formula parseFormula(InputStream inputSource) throws ParseException {
-        parser.ReInit(inputSource);
-        SimpleNode parseTree = parser.Input();
-        Formula phi = parseTreeToFormula(parseTree);
-        return phi;
+    /** @return Returns the settings of the separations given by the -st, -B and -bB options of cmd */
+    private static SeparationSettings searchSettings(CommandLine cmd) {
+        if(!cmd.hasOption("st") && !cmd.hasOption("B")) return SeparationSettings.DEFAULT;
+        BuiltinStrategy strategy = cmd.hasOption("st") ? BuiltinStrategy.valueOf(cmd.getOptionValue("st")) : BuiltinStrategy.GREEDY;
+        int width = cmd.hasOption("B") ? Integer.parseInt(cmd.getOptionValue("B")) : 1;
+        int budget = cmd.hasOption("bB") ? Integer.parseInt(cmd.getOptionValue("bB")) : DEFAULT_BEAM_BUDGET;
+        return new SeparationSettings(strategy, width, width == 1 ? 0 : budget);
+    }
+
+    /** @return Returns the formula written in the field of the answer of the server */
+    private static Formula remoteFormula(Map<String, Object> answer, String field) throws IOException {
+        try {
+            return parser.parse((String) answer.get(field));
+        } catch (ParseException | ClassCastException e) {
+            throw new IOException(String.format("Malformed %s formula in the answer of the server", field), e);
+        }
+    }
+
+    /** @return Returns the matrix of pure formulae in the answer of the server */
+    private static PureFormulaeMatrix remoteMatrix(Map<String, Object> answer) throws IOException {
+        PureFormulaeMatrix m = new PureFormulaeMatrix();
+        try {
+            for(Object o : (List<?>) answer.get("matrix")) {
+                List<?> t = (List<?>) o;
+                m.addTriple(parser.parse((String) t.get(0)), parser.parse((String) t.get(1)), parser.parse((String) t.get(2)));
+            }
+        } catch (ParseException | ClassCastException | NullPointerException e) {
+            throw new IOException("Malformed matrix in the answer of the server", e);
+        }
+        return m;
+    }
+
+    /** Separates the formulae of the input by each built-in strategy and prints their reports.
+     * The malformed formulae are reported and skipped. */
+    private static void compareStrategiesTask(String inputFile) throws IOException, InterruptedException {
+        FormulaReader reader = new FormulaReader(parser);
+        ArrayList<Formula> corpus = new ArrayList<>();
+        Consumer<FormulaReader.Entry> task = e -> {
+            if(e.isParsed()) corpus.add(e.getFormula());
+            else System.err.printf("Formula %d at line %d skipped, \"%s\": %s%n",
+                    e.getNumber(), e.getLine(), e.getSource(), e.getError().getMessage());
+        };
+        if(inputFile != null) reader.read(Path.of(inputFile), task);
+        else reader.read(System.in, task);
+        List<StrategyBenchmark.Report> reports = new StrategyBenchmark(corpus).runAll();
+        System.out.println(StrategyBenchmark.header());
+        reports.forEach(System.out::println);
+    }
+
+    private static Formula parseFormula(String inputFile) throws ParseException, IOException {
+        /* the input file is mapped in memory and parsed in place */
+        if(inputFile != null) return parser.parse(Path.of(inputFile));
+        return parser.parse(System.in.readAllBytes());
     }
 
     private static Formula performConversion(Formula phi) {
@@ -117,6 +300,14 @@ public class Main {
         return phis;
     }
 
+    /** @return Returns the separation of phi kept in the store, which is performed and stored if it is missing */
+    private static SeparationResult storedSeparation(Formula phi) throws IOException, InterruptedException {
+        System.out.println("Formula separation, looking up the store...");
+        SeparationResult r = LtlpSeparator.separateStored(phi, store);
+        System.out.println("Separation performed.");
+        return r;
+    }
+
     private static Formula performNormalization(Formula phi) {
         System.out.println("Normalization, applied rules:");
         Formula phin = normalizer.normalize(phi);
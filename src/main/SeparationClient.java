@@ -0,0 +1,47 @@
+package main;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** The SeparationClient class sends the requests to a SeparationServer on the local machine
+ * and waits for their answers.
+ * @see SeparationServer */
+public class SeparationClient implements Closeable {
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final Writer out;
+    private int requests;
+
+    /** Initializes a newly created SeparationClient connected to the server on the given port. */
+    public SeparationClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /** Sends the request of the operation op on the formula written in formula.
+     * @return Returns the fields of the answer
+     * @throws IOException if the connection fails or the server answers with an error */
+    public Map<String, Object> request(String op, String formula) throws IOException {
+        LinkedHashMap<String, Object> request = new LinkedHashMap<>();
+        request.put("id", (double) ++requests);
+        request.put("op", op);
+        request.put("formula", formula);
+        out.write(Json.write(request));
+        out.write('\n');
+        out.flush();
+        String line = in.readLine();
+        if(line == null) throw new EOFException("The server closed the connection");
+        Map<String, Object> answer = Json.readObject(line);
+        if(answer.containsKey("error")) throw new IOException(String.format("The server failed: %s", answer.get("error")));
+        return answer;
+    }
+
+    public void close() throws IOException { socket.close(); }
+
+}
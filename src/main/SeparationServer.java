@@ -0,0 +1,335 @@
+package main;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import separator.SeparationSettings;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** The SeparationServer class is a daemon serving separation requests on a local socket,
+ * so that the cost of the startup and of the warm-up of the JVM is paid once for all the requests.
+ * The protocol is line delimited JSON: each request is an object on a line, with the fields
+ * "op", the operation, "formula", the formula to process, and "id", any value echoed back,
+ * and it is answered in order by an object on a line.
+ * The operations are "convert", answered with the "converted" formula, and "separate",
+ * answered with the "separated" and the "normalized" formula, the "degree" and the "matrix".
+ * A request which cannot be served is answered with an "error" message.
+ * The formulae are separated by the SeparationSettings of the server.
+ * The connections are multiplexed by a selector on the thread running serve, which accepts them,
+ * reads the requests and writes the answers without blocking, whereas the requests are answered
+ * by a pool of worker threads, one for each processor since the separations are bound by the processors:
+ * the requests of a connection are answered one at a time, in order, and a connection with
+ * many requests pending or answers not written yet is not read until they are written.
+ * A line longer than MAX_LINE bytes is not kept, it is answered with an error.
+ * @see SeparationClient */
+public class SeparationServer implements Closeable {
+
+    /** The number of the requests of a connection which may be pending, or whose answers may be not written yet,
+     * before it is not read anymore */
+    private static final int MAX_PENDING = 64;
+
+    /** The maximum length of a request, in bytes */
+    private static final int MAX_LINE = 1 << 20;
+
+    /** The request queued in place of a line longer than MAX_LINE, told apart by its identity */
+    private static final String TOO_LONG = new String("too long");
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /** A connection: the requests read and not answered yet, and the answers not written yet.
+     * Its state is confined to the thread of the selector, the workers only compute the answers. */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        /* the parser is used by a worker at a time, since the requests are answered one at a time */
+        private final FormulaParser parser = new FormulaParser();
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        private final ArrayDeque<String> requests = new ArrayDeque<>();
+        private final ArrayDeque<ByteBuffer> answers = new ArrayDeque<>();
+        /** The bytes read and not split into lines yet, since the connection had too many pending requests */
+        private ByteBuffer unread = ByteBuffer.allocate(0);
+        /** Whether the line read so far is longer than MAX_LINE */
+        private boolean tooLong;
+        /** Whether a request is being answered by a worker */
+        private boolean busy;
+        /** Whether the client has closed its side of the connection */
+        private boolean eof;
+
+        private Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.key = channel.register(selector, SelectionKey.OP_READ, this);
+        }
+
+        /** Reads the available bytes and queues the complete lines as requests,
+         * until the connection has MAX_PENDING pending requests. */
+        private void read() throws IOException {
+            int n = 0;
+            while(!unread.hasRemaining() && this.pending() < MAX_PENDING && (n = channel.read(buffer.clear())) > 0) {
+                this.split(buffer.flip());
+                if(buffer.hasRemaining()) unread = ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+            }
+            if(n < 0) {
+                /* the last line may be not terminated */
+                this.request();
+                eof = true;
+            }
+            this.resume();
+        }
+
+        /** @return Returns the number of the requests of the connection which are pending,
+         * being answered or whose answers are not written yet */
+        private int pending() { return requests.size() + (busy ? 1 : 0) + answers.size(); }
+
+        /** Queues the complete lines of b as requests, while the connection has less than MAX_PENDING
+         * pending requests: the bytes left in b are split by a following call. */
+        private void split(ByteBuffer b) {
+            while(b.hasRemaining() && this.pending() < MAX_PENDING) {
+                byte c = b.get();
+                if(c == '\n') this.request();
+                else if(line.size() < MAX_LINE) line.write(c);
+                else tooLong = true;
+            }
+        }
+
+        /** Queues the line read so far as a request, unless it is blank. */
+        private void request() {
+            String request = tooLong ? TOO_LONG : line.toString(StandardCharsets.UTF_8).strip();
+            line.reset();
+            tooLong = false;
+            if(!request.isEmpty()) requests.add(request);
+        }
+
+        /** Splits the bytes left unread, reads the connection if it has less than MAX_PENDING pending requests
+         * and dispatches the next request. */
+        private void resume() throws IOException {
+            this.split(unread);
+            boolean readable = !eof && !unread.hasRemaining() && this.pending() < MAX_PENDING;
+            key.interestOps(readable ? key.interestOps() | SelectionKey.OP_READ : key.interestOps() & ~SelectionKey.OP_READ);
+            this.dispatch();
+        }
+
+        /** Passes the next request to a worker, unless one is being answered. */
+        private void dispatch() throws IOException {
+            if(busy || requests.isEmpty()) {
+                this.closeIfDone();
+                return;
+            }
+            String request = requests.poll();
+            busy = true;
+            if(request == TOO_LONG) {
+                this.answered(String.format("{\"id\":null,\"error\":\"The request is longer than %d bytes\"}", MAX_LINE));
+                return;
+            }
+            try {
+                workers.execute(() -> {
+                    answered.add(Map.entry(this, SeparationServer.this.answer(request, parser)));
+                    selector.wakeup();
+                });
+            } catch (RejectedExecutionException e) {
+                // the server is shutting down
+                this.close();
+            }
+        }
+
+        /** Queues the answer of the request being answered, and dispatches the next one. */
+        private void answered(String answer) throws IOException {
+            busy = false;
+            answers.add(ByteBuffer.wrap((answer + "\n").getBytes(StandardCharsets.UTF_8)));
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            this.dispatch();
+        }
+
+        /** Writes the queued answers while the channel accepts them, and resumes the reads
+         * if the connection has less than MAX_PENDING pending requests then. */
+        private void write() throws IOException {
+            while(!answers.isEmpty()) {
+                channel.write(answers.peek());
+                if(answers.peek().hasRemaining()) break;
+                answers.poll();
+            }
+            if(answers.isEmpty()) key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            this.resume();
+        }
+
+        /** Closes the connection if the client has closed its side and all its requests have been answered. */
+        private void closeIfDone() throws IOException {
+            if(eof && !busy && requests.isEmpty() && answers.isEmpty()) this.close();
+        }
+
+        private void close() throws IOException {
+            key.cancel();
+            channel.close();
+        }
+
+    }
+
+    private final ServerSocketChannel channel;
+    private final Selector selector;
+
+    /** The buffer of the reads, used by the thread of the selector */
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    /** The threads answering the requests */
+    private final ExecutorService workers;
+
+    /** The answers computed by the workers, to be written by the thread of the selector */
+    private final ConcurrentLinkedQueue<Map.Entry<Connection, String>> answered = new ConcurrentLinkedQueue<>();
+
+    /** The settings by which the formulae are separated */
+    private final SeparationSettings settings;
+
+    private boolean serving;
+    private volatile boolean closed;
+
+    /** Initializes a newly created SeparationServer listening on the given port of the loopback address,
+     * on any free port when it is 0. */
+    public SeparationServer(int port) throws IOException { this(port, SeparationSettings.DEFAULT); }
+
+    /** Initializes a newly created SeparationServer listening on the given port of the loopback address,
+     * on any free port when it is 0, which separates the formulae by the given settings. */
+    public SeparationServer(int port, SeparationSettings settings) throws IOException {
+        this.settings = Objects.requireNonNull(settings);
+        this.selector = Selector.open();
+        this.channel = ServerSocketChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 50);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            channel.close();
+            selector.close();
+            throw e;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "separation-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** @return Returns the port on which the server is listening */
+    public int getPort() { return channel.socket().getLocalPort(); }
+
+    /** Accepts and serves the connections until the server is closed. */
+    public void serve() throws IOException {
+        synchronized (this) {
+            if(closed) return;
+            serving = true;
+        }
+        try {
+            while(!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey k = keys.next();
+                    keys.remove();
+                    if(!k.isValid()) continue;
+                    if(k.isAcceptable()) this.accept();
+                    else this.serve((Connection) k.attachment(), k);
+                }
+                Map.Entry<Connection, String> a;
+                while((a = answered.poll()) != null) {
+                    Connection c = a.getKey();
+                    if(!c.key.isValid()) continue;
+                    try {
+                        c.answered(a.getValue());
+                    } catch (IOException e) {
+                        c.close();
+                    }
+                }
+            }
+        } catch (ClosedSelectorException e) {
+            // the server has been closed
+        } finally {
+            for(SelectionKey k : new ArrayList<>(selector.keys())) k.channel().close();
+            selector.close();
+        }
+    }
+
+    /** Stops accepting connections and closes the ones being served, interrupting their requests. */
+    public void close() throws IOException {
+        synchronized (this) {
+            closed = true;
+            if(!serving) selector.close();
+        }
+        channel.close();
+        workers.shutdownNow();
+        selector.wakeup();
+    }
+
+    /** Accepts the pending connections. */
+    private void accept() throws IOException {
+        SocketChannel s;
+        while((s = channel.accept()) != null) {
+            s.configureBlocking(false);
+            new Connection(s);
+        }
+    }
+
+    /** Reads the requests of the connection c and writes its answers, as selected by the key k. */
+    private void serve(Connection c, SelectionKey k) throws IOException {
+        try {
+            if(k.isReadable()) c.read();
+            if(k.isValid() && k.isWritable()) c.write();
+        } catch (IOException e) {
+            // the connection has been closed by the client
+            c.close();
+        }
+    }
+
+    /** @return Returns the answer to the request written in line */
+    String answer(String line, FormulaParser parser) {
+        Map<String, Object> request;
+        try {
+            request = Json.readObject(line);
+        } catch (IllegalArgumentException e) {
+            return "{\"id\":null,\"error\":" + Json.quote(e.getMessage()) + "}";
+        }
+        StringBuilder json = new StringBuilder("{\"id\":").append(Json.write(request.get("id")));
+        Object op = request.getOrDefault("op", "separate");
+        Object formula = request.get("formula");
+        try {
+            if(!(formula instanceof String s)) throw new IllegalArgumentException("The request has no formula");
+            Formula phi = parser.parse(s);
+            json.append(",\"input\":").append(Json.quote(phi.toString()));
+            if("convert".equals(op)) {
+                json.append(",\"converted\":").append(Json.quote(new FormulaConverter().convert(phi).toString()));
+            }
+            else if("separate".equals(op)) Json.appendResult(json, LtlpSeparator.separate(phi, SeparationCache.getDefault(), settings));
+            else throw new IllegalArgumentException(String.format("Unknown operation %s", op));
+        } catch (ParseException | RuntimeException | StackOverflowError | OutOfMemoryError | AssertionError e) {
+            json.append(",\"error\":").append(Json.quote(e.getMessage() != null ? e.getMessage() : e.toString()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            json.append(",\"error\":\"The server is shutting down\"");
+        }
+        return json.append('}').toString();
+    }
+
+}
@@ -0,0 +1,120 @@
+package main;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import separator.BuiltinStrategy;
+import separator.FormulaSeparator;
+import separator.SeparationCache;
+import separator.SeparationStrategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+
+/** The StrategyBenchmark class compares the separation strategies on a corpus of formulae.
+ * Each strategy separates every formula of the corpus, converted and without any cache, on the calling thread,
+ * and its report gives the time spent, the number of the xs rewritten and the size of the separated formulae.
+ * The corpus is separated once by the first strategy before the measures, to warm up the virtual machine.
+ * @see SeparationStrategy */
+public final class StrategyBenchmark {
+
+    /** The measures of a strategy over the corpus */
+    public static final class Report {
+
+        private final String strategy;
+        private final int formulae;
+        private final int failed;
+        private final long nanos;
+        private final long steps;
+        private final long wasted;
+        private final long size;
+
+        private Report(String strategy, int formulae, int failed, long nanos, long steps, long wasted, long size) {
+            this.strategy = strategy;
+            this.formulae = formulae;
+            this.failed = failed;
+            this.nanos = nanos;
+            this.steps = steps;
+            this.wasted = wasted;
+            this.size = size;
+        }
+
+        /** @return Returns the name of the strategy */
+        public String getStrategy() { return strategy; }
+
+        /** @return Returns the number of the formulae of the corpus */
+        public int getFormulae() { return formulae; }
+
+        /** @return Returns the number of the formulae whose separation failed or left them unseparated */
+        public int getFailed() { return failed; }
+
+        /** @return Returns the time spent on the separations, in milliseconds */
+        public double getMillis() { return nanos / 1e6; }
+
+        /** @return Returns the number of the xs rewritten for the separated formulae */
+        public long getSteps() { return steps; }
+
+        /** @return Returns the number of the stale entries of the worklists skipped for the separated formulae */
+        public long getWasted() { return wasted; }
+
+        /** @return Returns the total number of nodes of the separated formulae */
+        public long getSize() { return size; }
+
+        public String toString() {
+            return String.format(Locale.ROOT, "%-20s %8d %8d %12.1f %10d %8d %12d",
+                    strategy, formulae, failed, this.getMillis(), steps, wasted, size);
+        }
+
+    }
+
+    private final List<Formula> corpus;
+    private final FormulaConverter converter = new FormulaConverter();
+
+    /** Initializes a newly created StrategyBenchmark over the formulae of the corpus, which are not modified. */
+    public StrategyBenchmark(List<Formula> corpus) { this.corpus = corpus; }
+
+    /** Separates the corpus by each built-in strategy.
+     * @return Returns the reports of the strategies, in the order of their declaration */
+    public List<Report> runAll() throws InterruptedException {
+        this.run(BuiltinStrategy.GREEDY.name(), BuiltinStrategy.GREEDY);
+        ArrayList<Report> reports = new ArrayList<>();
+        for(BuiltinStrategy s : BuiltinStrategy.values()) reports.add(this.run(s.name(), s));
+        return reports;
+    }
+
+    /** Separates the corpus by the strategy s, named name in the report.
+     * @return Returns the report of the strategy */
+    public Report run(String name, SeparationStrategy s) throws InterruptedException {
+        int failed = 0;
+        long nanos = 0, steps = 0, wasted = 0, size = 0;
+        for(Formula f : corpus) {
+            FormulaSeparator separator = new FormulaSeparator((SeparationCache) null);
+            separator.setStrategy(s);
+            Formula phi = converter.convert(f.deepCopy());
+            long start = System.nanoTime();
+            try {
+                Formula separated = separator.separate(phi);
+                nanos += System.nanoTime() - start;
+                /* a formula left unseparated is a failure, and its measures are not comparable */
+                if(!separated.isSeparated()) {
+                    failed++;
+                    continue;
+                }
+                steps += separator.getSteps();
+                wasted += separator.getWastedPops();
+                size += separated.size();
+            } catch (ExecutionException | RuntimeException | StackOverflowError | OutOfMemoryError e) {
+                nanos += System.nanoTime() - start;
+                failed++;
+            }
+        }
+        return new Report(name, corpus.size(), failed, nanos, steps, wasted, size);
+    }
+
+    /** @return Returns the header of the table of the reports */
+    public static String header() {
+        return String.format(Locale.ROOT, "%-20s %8s %8s %12s %10s %8s %12s",
+                "strategy", "formulae", "failed", "time (ms)", "steps", "wasted", "size");
+    }
+
+}
@@ -47,6 +47,98 @@ public class OptionsManager {
         input.setArgName("FILE");
         options.addOption(input);
 
+        options.addOption(
+                new Option(
+                        "b",
+                        "batch",
+                        false,
+                        "reads a formula per line, or separated by ';', and performs the task on each of them"
+                )
+        );
+
+        Option jobs = new Option(
+                "j",
+                "jobs",
+                true,
+                "separates the formulae of the input, one per line, on the given number of threads " +
+                        "(0 for all the processors) and saves the results as JSON Lines"
+        );
+        jobs.setArgName("THREADS");
+        options.addOption(jobs);
+
+        Option server = new Option(
+                "S",
+                "server",
+                true,
+                "starts a daemon serving the separation requests, as JSON lines, on the given local port"
+        );
+        server.setArgName("PORT");
+        options.addOption(server);
+
+        Option connect = new Option(
+                "C",
+                "connect",
+                true,
+                "performs the separation by the daemon listening on the given local port"
+        );
+        connect.setArgName("PORT");
+        options.addOption(connect);
+
+        Option store = new Option(
+                "P",
+                "persist",
+                true,
+                "keeps the separations in the given file, where the later runs find them without separating again, " +
+                        "unless they separate by another strategy or by a beam search"
+        );
+        store.setArgName("FILE");
+        options.addOption(store);
+
+        options.addOption(
+                new Option(
+                        "T",
+                        "templates",
+                        false,
+                        "separates the formulae of the input as instances of templates differing only in their atoms"
+                )
+        );
+
+        Option beam = new Option(
+                "B",
+                "beam",
+                true,
+                "separates by a beam search keeping the given number of partial rewritings, for smaller results"
+        );
+        beam.setArgName("WIDTH");
+        options.addOption(beam);
+
+        Option budget = new Option(
+                "bB",
+                "beamBudget",
+                true,
+                "the number of partial rewritings which the beam search may fork"
+        );
+        budget.setArgName("FORKS");
+        options.addOption(budget);
+
+        Option strategy = new Option(
+                "st",
+                "strategy",
+                true,
+                "the strategy of the separation: GREEDY, DEEPEST_FIRST, SMALLEST_PRODUCTION or CHEAPEST_COST"
+        );
+        strategy.setArgName("NAME");
+        options.addOption(strategy);
+
+        options.addOption(
+                new Option(
+                        "cS",
+                        "compareStrategies",
+                        false,
+                        "separates the formulae of the input by each strategy, reporting time, steps and output size"
+                )
+        );
+
         Option output = new Option(
                 "oF",
                 "outputFile",
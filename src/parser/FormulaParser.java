@@ -0,0 +1,345 @@
+package parser;
+
+import formula.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/** The FormulaParser class is a parser of the LTLp formulae which builds the formula
+ * directly from the input, without the intermediate parse tree of the Parser class.
+ * It accepts exactly the language of grammar.jjt, with the same precedences and associativity
+ * of the operators, and returns the same formula of parseTreeToFormula applied to the parse tree.
+ * The input is read in place from a character sequence, a byte array or a byte buffer,
+ * hence a memory mapped file is parsed without being copied, and the images of the atoms
+ * are cached, so that each distinct atom allocates its image once.
+ * The parse is a single iterative pass, an operator precedence parse with explicit stacks,
+ * hence the nesting depth of the input is not bounded by the call stack.
+ * An instance reuses its buffers between the parses and must not be shared between threads.
+ * @see Formula#parseTreeToFormula(SimpleNode) */
+public final class FormulaParser {
+
+    /** A factory of the nodes built by the parser */
+    public interface Builder<T> {
+
+        /** @return Returns the atomic formula with image img */
+        T atom(String img);
+
+        /** @return Returns the formula with the unary operator op and operand o */
+        T unary(Operator op, T o);
+
+        /** @return Returns the formula with the binary operator op, left operand l and right operand r */
+        T binary(Operator op, T l, T r);
+
+    }
+
+    /** The builder of the mutable formulae, the atoms are interned inside the AtomTable */
+    public static final Builder<Formula> FORMULAE = new Builder<>() {
+        public Formula atom(String img) { return new AtomicFormula(img); }
+        public Formula unary(Operator op, Formula o) { return new UnaryFormula(op, o); }
+        public Formula binary(Operator op, Formula l, Formula r) { return new BinaryFormula(op, l, r); }
+    };
+
+    /** @return Returns the builder of the hash-consed formulae of the table t */
+    public static Builder<ImmutableFormula> hashConsed(FormulaTable t) {
+        return new Builder<>() {
+            public ImmutableFormula atom(String img) { return t.atom(img); }
+            public ImmutableFormula unary(Operator op, ImmutableFormula o) { return t.unary(op, o); }
+            public ImmutableFormula binary(Operator op, ImmutableFormula l, ImmutableFormula r) {
+                return t.binary(op, l, r);
+            }
+        };
+    }
+
+    /** The code of the left parenthesis on the operator stack, the others are the operator ordinals */
+    private static final int LPAREN = -1;
+
+    private static final Operator[] OPERATORS = Operator.values();
+
+    /** The size of the atom image cache, a power of two */
+    private static final int ATOM_CACHE_SIZE = 1024;
+
+    private Object[] operands = new Object[64];
+    private int operandsTop;
+
+    private int[] operators = new int[64];
+    private int operatorsTop;
+
+    /** The images of the last atoms read, indexed by a hash of their characters */
+    private final String[] atomCache = new String[ATOM_CACHE_SIZE];
+
+    /** The input of the current parse, read between start and end */
+    private CharSequence input;
+    private int start;
+    private int end;
+
+    /** @return Returns the formula written in the characters of s */
+    public Formula parse(CharSequence s) throws ParseException {
+        return this.parse(s, 0, s.length(), FORMULAE);
+    }
+
+    /** @return Returns the formula written in the ASCII bytes of b */
+    public Formula parse(byte[] b) throws ParseException {
+        return this.parse(ByteBuffer.wrap(b));
+    }
+
+    /** @return Returns the formula written in the ASCII bytes between the position and the limit of b,
+     * the position of b is not modified */
+    public Formula parse(ByteBuffer b) throws ParseException {
+        return this.parse(new ByteSequence(b), FORMULAE);
+    }
+
+    /** @return Returns the formula written in the ASCII file p, which is mapped in memory */
+    public Formula parse(Path p) throws IOException, ParseException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            return this.parse(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** @return Returns the formula written in the characters of s, built by b */
+    public <T> T parse(CharSequence s, Builder<T> b) throws ParseException {
+        return this.parse(s, 0, s.length(), b);
+    }
+
+    /** @return Returns the formula written in the characters of s from start, inclusive,
+     * to end, exclusive, built by b */
+    @SuppressWarnings("unchecked")
+    public <T> T parse(CharSequence s, int start, int end, Builder<T> b) throws ParseException {
+        if(start < 0 || end > s.length() || start > end) throw new IndexOutOfBoundsException(
+                String.format("The range [%d, %d) is out of the input of length %d", start, end, s.length())
+        );
+        this.input = s;
+        this.start = start;
+        this.end = end;
+        operandsTop = 0;
+        operatorsTop = 0;
+        try {
+            int i = start;
+            /* an operand is followed by a binary operator, a closed parenthesis or the end,
+             * any other token is followed by an operand */
+            while(true) {
+                i = this.readOperand(this.skipWhitespace(i), b);
+                i = this.readClosedParentheses(this.skipWhitespace(i), b);
+                if(i == end) break;
+                i = this.readBinaryOperator(i, b);
+            }
+            while(operatorsTop > 0) {
+                if(operators[operatorsTop - 1] == LPAREN) throw this.unexpected(i, "\")\"");
+                this.reduceBinary(b);
+            }
+            return (T) operands[0];
+        } finally {
+            Arrays.fill(operands, 0, operandsTop, null);
+            this.input = null;
+        }
+    }
+
+    /** Reads the unary operators and the open parentheses starting at the position i,
+     * up to the atom which ends the operand.
+     * @return Returns the position following the atom */
+    private <T> int readOperand(int i, Builder<T> b) throws ParseException {
+        while(i < end && (input.charAt(i) == '(' || unaryOperator(input.charAt(i)) != null)) {
+            char c = input.charAt(i++);
+            this.pushOperator(c == '(' ? LPAREN : unaryOperator(c).ordinal());
+            i = this.skipWhitespace(i);
+        }
+        if(i == end || !isAtomStart(input.charAt(i))) {
+            throw this.unexpected(i, "an atom, a unary operator or \"(\"");
+        }
+        int j = i + 1;
+        while(j < end && isAtomPart(input.charAt(j))) j++;
+        this.pushOperand(b.atom(this.atomImage(i, j)));
+        this.reduceUnaries(b);
+        return j;
+    }
+
+    /** Reads the closed parentheses starting at the position i, which follow an operand.
+     * @return Returns the position of the first token following the parentheses */
+    private <T> int readClosedParentheses(int i, Builder<T> b) throws ParseException {
+        while(i < end && input.charAt(i) == ')') {
+            while(operatorsTop > 0 && operators[operatorsTop - 1] != LPAREN) this.reduceBinary(b);
+            if(operatorsTop == 0) throw this.unexpected(i, "a binary operator or <EOF>");
+            operatorsTop--;
+            this.reduceUnaries(b);
+            i = this.skipWhitespace(i + 1);
+        }
+        return i;
+    }
+
+    /** Reads the binary operator starting at the position i, which follows an operand.
+     * @return Returns the position following the binary operator */
+    private <T> int readBinaryOperator(int i, Builder<T> b) throws ParseException {
+        Operator op = this.binaryOperator(i);
+        if(op == null) throw this.unexpected(i, "a binary operator, \")\" or <EOF>");
+        /* all the binary operators are left associative */
+        int p = precedence(op);
+        while(operatorsTop > 0 && operators[operatorsTop - 1] != LPAREN
+                && precedence(OPERATORS[operators[operatorsTop - 1]]) >= p) this.reduceBinary(b);
+        this.pushOperator(op.ordinal());
+        return i + op.getImage().length();
+    }
+
+    private int skipWhitespace(int i) {
+        while(i < end && isWhitespace(input.charAt(i))) i++;
+        return i;
+    }
+
+    /** Applies the unary operators on the top of the operator stack to the operand on the top. */
+    @SuppressWarnings("unchecked")
+    private <T> void reduceUnaries(Builder<T> b) {
+        while(operatorsTop > 0 && operators[operatorsTop - 1] != LPAREN
+                && OPERATORS[operators[operatorsTop - 1]].isUnary()) {
+            Operator op = OPERATORS[operators[--operatorsTop]];
+            operands[operandsTop - 1] = b.unary(op, (T) operands[operandsTop - 1]);
+        }
+    }
+
+    /** Applies the binary operator on the top of the operator stack to the two operands on the top. */
+    @SuppressWarnings("unchecked")
+    private <T> void reduceBinary(Builder<T> b) {
+        Operator op = OPERATORS[operators[--operatorsTop]];
+        T r = (T) operands[--operandsTop];
+        operands[operandsTop] = null;
+        T l = (T) operands[operandsTop - 1];
+        /* as in parseTreeToFormula the operands of the binary temporal operators are swapped,
+         * so that the formulae use the prefix notation of the program logic */
+        operands[operandsTop - 1] = op.isTemporal() ? b.binary(op, r, l) : b.binary(op, l, r);
+    }
+
+    private void pushOperand(Object o) {
+        if(operandsTop == operands.length) operands = Arrays.copyOf(operands, 2 * operandsTop);
+        operands[operandsTop++] = o;
+    }
+
+    private void pushOperator(int code) {
+        if(operatorsTop == operators.length) operators = Arrays.copyOf(operators, 2 * operatorsTop);
+        operators[operatorsTop++] = code;
+    }
+
+    /** @return Returns the image of the atom between the positions i, inclusive, and j, exclusive */
+    private String atomImage(int i, int j) {
+        int h = 0;
+        for(int k = i; k < j; k++) h = 31 * h + input.charAt(k);
+        int slot = (h ^ (h >>> 16)) & (ATOM_CACHE_SIZE - 1);
+        String img = atomCache[slot];
+        if(img == null || !this.matches(img, i, j)) {
+            img = input.subSequence(i, j).toString();
+            atomCache[slot] = img;
+        }
+        return img;
+    }
+
+    /** An atomImage subroutine. */
+    private boolean matches(String img, int i, int j) {
+        if(img.length() != j - i) return false;
+        for(int k = i; k < j; k++) if(img.charAt(k - i) != input.charAt(k)) return false;
+        return true;
+    }
+
+    /** @return Returns the binary operator whose image starts at the position i, null if there is none */
+    private Operator binaryOperator(int i) {
+        return switch (input.charAt(i)) {
+            case '&' -> Operator.AND;
+            case '|' -> Operator.OR;
+            case 'U' -> Operator.UNTIL;
+            case 'S' -> Operator.SINCE;
+            case 'W' -> Operator.UNLESS;
+            case '-' -> this.startsWith(i, "->") ? Operator.IMPL : null;
+            case '<' -> this.startsWith(i, "<->") ? Operator.EQUIV : null;
+            default -> null;
+        };
+    }
+
+    private boolean startsWith(int i, String img) {
+        if(i + img.length() > end) return false;
+        for(int k = 0; k < img.length(); k++) if(input.charAt(i + k) != img.charAt(k)) return false;
+        return true;
+    }
+
+    /** @return Returns the unary operator whose image is c, null if there is none */
+    private static Operator unaryOperator(char c) {
+        return switch (c) {
+            case '!' -> Operator.NOT;
+            case 'O' -> Operator.ONCE;
+            case 'H' -> Operator.HIST;
+            case 'Y' -> Operator.YEST;
+            case 'F' -> Operator.FIN;
+            case 'G' -> Operator.GLOB;
+            case 'X' -> Operator.NEXT;
+            default -> null;
+        };
+    }
+
+    /** @return Returns the precedence of the binary operator op, the higher binds tighter */
+    private static int precedence(Operator op) {
+        return switch (op) {
+            case EQUIV -> 1;
+            case IMPL -> 2;
+            case OR -> 3;
+            case AND -> 4;
+            default -> 5;
+        };
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static boolean isAtomStart(char c) { return c >= 'a' && c <= 'z'; }
+
+    private static boolean isAtomPart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    /** @return Returns the exception reporting the unexpected token at the position i,
+     * with the line and the column counted from the start of the input */
+    private ParseException unexpected(int i, String expected) {
+        int line = 1, column = 1;
+        for(int k = start; k < i; k++) {
+            if(input.charAt(k) == '\n') {
+                line++;
+                column = 1;
+            }
+            else column++;
+        }
+        String found = i == end ? "<EOF>" : String.valueOf(input.charAt(i));
+        return new ParseException(String.format(
+                "Encountered \"%s\" at line %d, column %d. Was expecting %s.", found, line, column, expected
+        ));
+    }
+
+    /** A read only view of the ASCII bytes of a buffer as characters, used by the FormulaReader too */
+    static final class ByteSequence implements CharSequence {
+
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        ByteSequence(ByteBuffer b) {
+            this(b, b.position(), b.remaining());
+        }
+
+        private ByteSequence(ByteBuffer b, int offset, int length) {
+            this.buffer = b;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public int length() { return length; }
+
+        public char charAt(int i) { return (char) (buffer.get(offset + i) & 0xff); }
+
+        public CharSequence subSequence(int i, int j) { return new ByteSequence(buffer, offset + i, j - i); }
+
+        public String toString() {
+            byte[] b = new byte[length];
+            buffer.get(offset, b);
+            return new String(b, StandardCharsets.ISO_8859_1);
+        }
+
+    }
+
+}
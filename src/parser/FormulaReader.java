@@ -0,0 +1,151 @@
+package parser;
+
+import formula.Formula;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/** The FormulaReader class reads a sequence of formulae, one per line or separated by ';'.
+ * Each entry is parsed by a FormulaParser and handed to the consumer as soon as it is read,
+ * so that the formulae are processed while the rest of the input is still being read.
+ * A malformed entry does not interrupt the reading: it is handed to the consumer
+ * with the exception of its parse, and the reading goes on from the following entry.
+ * The blank entries are skipped.
+ * @see FormulaParser */
+public final class FormulaReader {
+
+    /** An entry of the input, which is either a formula or a parse error */
+    public static final class Entry {
+
+        private final int number;
+        private final int line;
+        private final Formula formula;
+        private final ParseException error;
+        private final String source;
+
+        private Entry(int number, int line, Formula formula, ParseException error, String source) {
+            this.number = number;
+            this.line = line;
+            this.formula = formula;
+            this.error = error;
+            this.source = source;
+        }
+
+        /** @return Returns the position of the entry among the non blank entries, starting from 1 */
+        public int getNumber() { return number; }
+
+        /** @return Returns the line of the input where the entry starts, starting from 1 */
+        public int getLine() { return line; }
+
+        /** @return Returns true if, and only if, the entry has been parsed */
+        public boolean isParsed() { return error == null; }
+
+        /** @return Returns the formula of the entry, null if it is malformed */
+        public Formula getFormula() { return formula; }
+
+        /** @return Returns the exception thrown by the parse of the entry, null if it has been parsed */
+        public ParseException getError() { return error; }
+
+        /** @return Returns the text of the entry if it is malformed, null otherwise */
+        public String getSource() { return source; }
+
+    }
+
+    /** The initial size of the buffer of the streamed inputs */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final FormulaParser parser;
+
+    /* the state of the current reading */
+    private int entries;
+    private int line;
+
+    /** Initializes a newly created FormulaReader with its own parser. */
+    public FormulaReader() { this(new FormulaParser()); }
+
+    /** Initializes a newly created FormulaReader which parses the entries by p. */
+    public FormulaReader(FormulaParser p) { this.parser = p; }
+
+    /** Reads the entries of the ASCII file p, which is mapped in memory.
+     * @return Returns the number of the non blank entries read */
+    public int read(Path p, Consumer<Entry> c) throws IOException {
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            this.reset();
+            ByteBuffer b = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            this.readEntries(new FormulaParser.ByteSequence(b), true, c);
+            return entries;
+        }
+    }
+
+    /** Reads the entries of the ASCII stream in, until its end.
+     * @return Returns the number of the non blank entries read */
+    public int read(InputStream in, Consumer<Entry> c) throws IOException {
+        this.reset();
+        byte[] buffer = new byte[CHUNK_SIZE];
+        int length = 0;
+        while(true) {
+            if(length == buffer.length) buffer = Arrays.copyOf(buffer, 2 * length);
+            int n = in.read(buffer, length, buffer.length - length);
+            boolean last = n < 0;
+            if(!last) length += n;
+            /* the entries are parsed inside the buffer, the unfinished one is moved to its beginning */
+            int consumed = this.readEntries(
+                    new FormulaParser.ByteSequence(ByteBuffer.wrap(buffer, 0, length)), last, c
+            );
+            if(last) return entries;
+            System.arraycopy(buffer, consumed, buffer, 0, length - consumed);
+            length -= consumed;
+        }
+    }
+
+    /** Reads the entries of the chunk s up to its last separator,
+     * or up to its end when it is the last chunk of the input.
+     * @return Returns the position following the last entry read */
+    private int readEntries(CharSequence s, boolean last, Consumer<Entry> c) {
+        int start = 0;
+        for(int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if(ch != '\n' && ch != ';') continue;
+            this.readEntry(s, start, i, c);
+            if(ch == '\n') line++;
+            start = i + 1;
+        }
+        if(!last) return start;
+        this.readEntry(s, start, s.length(), c);
+        return s.length();
+    }
+
+    /** A readEntries subroutine.
+     * Parses the entry between the positions start, inclusive, and end, exclusive,
+     * and hands it to the consumer c, unless it is blank. */
+    private void readEntry(CharSequence s, int start, int end, Consumer<Entry> c) {
+        if(isBlank(s, start, end)) return;
+        entries++;
+        Entry e;
+        try {
+            e = new Entry(entries, line, parser.parse(s, start, end, FormulaParser.FORMULAE), null, null);
+        } catch (ParseException ex) {
+            e = new Entry(entries, line, null, ex, s.subSequence(start, end).toString().trim());
+        }
+        c.accept(e);
+    }
+
+    private static boolean isBlank(CharSequence s, int start, int end) {
+        for(int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if(c != ' ' && c != '\t' && c != '\r') return false;
+        }
+        return true;
+    }
+
+    private void reset() {
+        entries = 0;
+        line = 1;
+    }
+
+}
@@ -0,0 +1,74 @@
+package separator;
+
+import formula.BinaryFormula;
+import formula.Formula;
+import separator.eliminator.EliminationCost;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/** The BuiltinStrategy enum holds the strategies shipped with the separator.
+ * All of them follow a production of the minimum degree, which keeps the rewritings from growing:
+ * GREEDY chooses the first one of the minimum k, DEEPEST_FIRST does the same while separating the deepest
+ * xs first, SMALLEST_PRODUCTION chooses the smallest one and CHEAPEST_COST the one whose xs still to separate
+ * are the smallest, as an estimate of the work left.
+ * @see SeparationStrategy */
+public enum BuiltinStrategy implements SeparationStrategy {
+
+    GREEDY {
+        public int choose(EliminationCost[] costs) {
+            int minDegree = Arrays.stream(costs).mapToInt(EliminationCost::degree).min().getAsInt();
+            /* the productions are mapped to their maximum k value of the minimum degree, then the first one
+             * with the minimum k value among the ones of the productions of minimum degree is chosen */
+            int[] ks = new int[costs.length];
+            int minK = Integer.MAX_VALUE;
+            for(int i = 0; i < ks.length; i++) {
+                ks[i] = costs[i].maxKofDegreeM(minDegree);
+                if(costs[i].degree() == minDegree) minK = Math.min(minK, ks[i]);
+            }
+            int chosen = 0;
+            while(ks[chosen] != minK) chosen++;
+            return chosen;
+        }
+    },
+
+    DEEPEST_FIRST {
+        public void order(List<BinaryFormula> xs) {
+            xs.sort(Comparator.comparingInt(BuiltinStrategy::depth).reversed());
+        }
+
+        public int choose(EliminationCost[] costs) { return GREEDY.choose(costs); }
+    },
+
+    SMALLEST_PRODUCTION {
+        public int choose(EliminationCost[] costs) { return minimum(costs, EliminationCost::size); }
+    },
+
+    CHEAPEST_COST {
+        public int choose(EliminationCost[] costs) { return minimum(costs, EliminationCost::work); }
+    };
+
+    /** @return Returns the position of the first production of the minimum degree whose measure is the minimum */
+    private static int minimum(EliminationCost[] costs, ToIntFunction<EliminationCost> measure) {
+        int minDegree = Arrays.stream(costs).mapToInt(EliminationCost::degree).min().getAsInt();
+        int chosen = -1, min = Integer.MAX_VALUE;
+        for(int i = 0; i < costs.length; i++) {
+            if(costs[i].degree() != minDegree) continue;
+            int v = measure.applyAsInt(costs[i]);
+            if(v < min) {
+                min = v;
+                chosen = i;
+            }
+        }
+        return chosen;
+    }
+
+    /** @return Returns the number of the ancestors of f */
+    private static int depth(Formula f) {
+        int d = 0;
+        for(Formula p = f.getParent(); p != null; p = p.getParent()) d++;
+        return d;
+    }
+
+}
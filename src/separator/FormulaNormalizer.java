@@ -1,9 +1,8 @@
 package separator;
 
 import formula.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.Queue;
 import static formula.AtomConstant.TRUE;
 import static formula.BinaryFormula.newConjunction;
 import static formula.BooleanRules.*;
@@ -24,7 +23,7 @@ public class FormulaNormalizer {
     }
 
     private static boolean needsNormalization(Formula f) {
-        Queue<Formula> q = new LinkedList<>();
+        ArrayDeque<Formula> q = new ArrayDeque<>();
         q.add(f);
         while(!q.isEmpty()) {
             Formula nf = q.remove();
@@ -58,7 +57,7 @@ public class FormulaNormalizer {
 
 
     private Formula applyNormalizations(Formula f) {
-        Queue<Formula> q = new LinkedList<>();
+        ArrayDeque<Formula> q = new ArrayDeque<>();
         q.add(f);
         while(!q.isEmpty()) {
             Formula nf = q.remove();
@@ -105,8 +104,11 @@ public class FormulaNormalizer {
         return f;
     }
 
+    /** Normalizes the formula f in DNF form. The CombinationFormula nodes of f are expanded
+     * into chains of binary formulae, which the normalization rules work on.
+     * @return Returns the normalized formula */
     public Formula normalize(Formula f) {
-        root = f;
+        root = CombinationFormula.expand(f);
         while (needsNormalization(root)) {
             updateRoot(applyNormalizations(root));
         }
@@ -153,7 +155,8 @@ public class FormulaNormalizer {
      * - or a conjunction of pure formulas; */
     private ArrayList<Formula> getConjunctions(Formula f) {
         ArrayList<Formula> cnjs = new ArrayList<>();
-        if(f.isOperator(OR)) {
+        if(f instanceof CombinationFormula cf && cf.isOperator(OR)) cnjs = cf.getCombinationOperands();
+        else if(f.isOperator(OR)) {
             BinaryFormula bf = (BinaryFormula) f;
             cnjs = bf.getCombinationOperands();
         }
@@ -161,10 +164,11 @@ public class FormulaNormalizer {
         return cnjs;
     }
 
-    /*pre: f is atomic or binary */
+    /*pre: f is atomic, binary or a combination */
     private ArrayList<Formula> getPureFormulae(Formula f) {
         ArrayList<Formula> pureFms = new ArrayList<>();
-        if(f.isOperator(AND)) {
+        if(f instanceof CombinationFormula cf && cf.isOperator(AND)) pureFms = cf.getCombinationOperands();
+        else if(f.isOperator(AND)) {
             BinaryFormula bf = (BinaryFormula) f;
             pureFms = bf.getCombinationOperands();
         }
@@ -1,15 +1,17 @@
 package separator;
 
 import formula.*;
+import separator.eliminator.EliminationCost;
+import separator.eliminator.FormulaEliminator.Elimination;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.stream.IntStream;
 import static formula.BinaryFormula.newCombination;
 import static formula.BinaryFormula.newConjunction;
 import static formula.Operator.*;
 import static separator.Lemmata.*;
-import static separator.eliminator.FormulaEliminator.applyElimination;
+import static separator.eliminator.FormulaEliminator.eliminationNumber;
+import static separator.eliminator.FormulaEliminator.prepareElimination;
 import static formula.Junction.junctionsList;
 import static separator.FormulaSimplifier.simplify;
 
@@ -17,6 +19,211 @@ public class FormulaSeparator {
 
     private Formula root;
 
+    /** The index used to answer the ancestry queries on the junctions of the current x */
+    private final FormulaIndex index = new FormulaIndex();
+
+    /** The cache of the separations of the formula and of its xs, null if they are not cached */
+    private final SeparationCache cache;
+
+    /** The number of partial rewritings kept by the beam search, 1 for the greedy search */
+    private int beamWidth = 1;
+
+    /** The number of partial rewritings which the beam search may fork */
+    private int beamBudget;
+
+    /** The strategy ordering the xs and choosing the productions of the eliminations */
+    private SeparationStrategy strategy = BuiltinStrategy.GREEDY;
+
+    /** Whether the dominated junctions are left out of the elimination choices */
+    private boolean dominancePruning;
+
+    /** Whether the pure present subformulae are abstracted while the formula is separated */
+    private boolean pureAbstraction = true;
+
+    /** The number of the xs rewritten so far */
+    private long steps;
+
+    /** The number of the stale entries of the worklists skipped so far */
+    private long wastedPops;
+
+    /** The eliminations of an x with the estimated costs of their productions, and the one chosen by the strategy.
+     * The productions are built when they are needed, only the chosen one by the greedy search */
+    private static final class Choice {
+
+        private final BinaryFormula x;
+        private final Elimination[] eliminations;
+        private final EliminationCost[] costs;
+        private final Formula[] productions;
+        private final int chosen;
+
+        private Choice(BinaryFormula x, Elimination[] eliminations, EliminationCost[] costs, int chosen) {
+            this.x = x;
+            this.eliminations = eliminations;
+            this.costs = costs;
+            this.productions = new Formula[eliminations.length];
+            this.chosen = chosen;
+        }
+
+        /** @return Returns the production of the i-th elimination, which is built the first time */
+        private Formula production(int i) {
+            if(productions[i] == null) productions[i] = eliminations[i].apply();
+            return productions[i];
+        }
+
+        /** @return Returns the positions of at most n distinct productions which rewrite x with the degree of the chosen one:
+         * the chosen one first, then the others by k of their degree and size.
+         * The productions of a greater degree are left out, since their rewritings grow much larger */
+        private List<Integer> alternatives(int n) {
+            int degree = costs[chosen].degree();
+            ArrayList<Integer> others = new ArrayList<>();
+            for(int i = 0; i < eliminations.length; i++) {
+                if(i != chosen && eliminations[i].getNumber() != 0 && costs[i].degree() == degree) others.add(i);
+            }
+            others.sort(Comparator.comparingInt((Integer i) -> costs[i].maxKofDegreeM(degree))
+                    .thenComparingInt(i -> costs[i].size()));
+            ArrayList<Integer> alternatives = new ArrayList<>(List.of(chosen));
+            for(int i : others) {
+                if(alternatives.size() == n) break;
+                if(alternatives.stream().noneMatch(a -> this.production(a).equalTo(this.production(i)))) alternatives.add(i);
+            }
+            return alternatives;
+        }
+
+    }
+
+    /** The worklist of the xs to separate, a stack holding each x once.
+     * An x pushed again is moved to the top: the entry left below is stale, as it is the one of an x
+     * detached from the formula by a rewriting, and the stale entries are skipped when they reach the top */
+    private final class XWorklist {
+
+        private final ArrayDeque<BinaryFormula> stack = new ArrayDeque<>();
+        private final ArrayDeque<Integer> generations = new ArrayDeque<>();
+
+        /** The generation of the live entry of each x in the worklist */
+        private final IdentityHashMap<BinaryFormula, Integer> live = new IdentityHashMap<>();
+
+        private int generation;
+
+        /** Initializes a newly created XWorklist holding the xs, from the top. */
+        private XWorklist(List<BinaryFormula> xs) {
+            for(int i = xs.size() - 1; i >= 0; i--) this.push(xs.get(i));
+        }
+
+        /** Pushes x on the top of the worklist, its previous entry becoming stale. */
+        private void push(BinaryFormula x) {
+            stack.push(x);
+            generations.push(++generation);
+            live.put(x, generation);
+        }
+
+        /** @return Returns the x on the top of the worklist, skipping the stale entries, null if there is none */
+        private BinaryFormula pop() {
+            while(!stack.isEmpty()) {
+                BinaryFormula x = stack.pop();
+                Integer g = generations.pop();
+                if(!g.equals(live.get(x))) {
+                    wastedPops++;
+                    continue;
+                }
+                live.remove(x);
+                if(pathOf(root, x) != null) return x;
+                wastedPops++;
+            }
+            return null;
+        }
+
+        /** @return Returns the live xs of the worklist, from the top */
+        private List<BinaryFormula> pending() {
+            ArrayList<BinaryFormula> xs = new ArrayList<>();
+            Iterator<Integer> g = generations.iterator();
+            for(BinaryFormula x : stack) if(g.next().equals(live.get(x))) xs.add(x);
+            return xs;
+        }
+
+    }
+
+    /** A partial rewriting of the formula followed by the beam search */
+    private static final class State {
+
+        private Formula root;
+        private final XWorklist xs;
+
+        /** The elimination on which the state waits, null if its formula is separated */
+        private Choice choice;
+
+        private int degree, k, size;
+
+        private State(Formula root, XWorklist xs) {
+            this.root = root;
+            this.xs = xs;
+        }
+
+        private void rank() {
+            degree = root.degree();
+            k = maxKofDegreeM(root, degree);
+            size = root.size();
+        }
+
+    }
+
+    /** Initializes a newly created FormulaSeparator which does not cache its separations. */
+    public FormulaSeparator() { this(null); }
+
+    /** Initializes a newly created FormulaSeparator which looks up and stores in the cache
+     * the separations of the formulae and of their xs, if the cache is not null. */
+    public FormulaSeparator(SeparationCache cache) { this.cache = cache; }
+
+    /** Sets the search of the separation: with a width greater than 1, a beam search keeps the width best
+     * partial rewritings, ranked by degree, k and size, forking at most budget of them at the eliminations
+     * having more productions, and returns the smallest separated formula found.
+     * With a width of 1 the search is greedy, always following the best production of each elimination,
+     * and only the greedy search uses the cache of the separations.
+     * @see SeparationSettings */
+    public void setBeamSearch(int width, int budget) {
+        if(width < 1 || budget < 0) throw new IllegalArgumentException(
+                String.format("The width must be positive and the budget not negative but they are %d and %d", width, budget)
+        );
+        this.beamWidth = width;
+        this.beamBudget = budget;
+    }
+
+    /** @return Returns the number of partial rewritings kept by the beam search, 1 when the search is greedy */
+    public int getBeamWidth() { return beamWidth; }
+
+    /** Sets the strategy ordering the xs and choosing the productions of the eliminations, GREEDY by default.
+     * The cache holds the separations by GREEDY, hence it is not used by the other strategies. */
+    public void setStrategy(SeparationStrategy strategy) { this.strategy = Objects.requireNonNull(strategy); }
+
+    /** @return Returns the strategy ordering the xs and choosing the productions of the eliminations */
+    public SeparationStrategy getStrategy() { return strategy; }
+
+    /** Sets whether the junctions dominated by another one, with a y of the same degree but a smaller k,
+     * are left out of the elimination choices, as their productions are likely to be worse.
+     * Since they might still be the ones chosen, the pruning may change the separation, hence it is off by default.
+     * @see #undominated(ArrayList) */
+    public void setDominancePruning(boolean b) { this.dominancePruning = b; }
+
+    /** @return Returns true if, and only if, the dominated junctions are left out of the elimination choices */
+    public boolean isDominancePruning() { return dominancePruning; }
+
+    /** Sets whether the pure present subformulae are replaced by atoms while the formula is separated, as by default.
+     * The abstraction does not change the separation, it only makes the formula smaller.
+     * @see PureAbstraction */
+    public void setPureAbstraction(boolean b) { this.pureAbstraction = b; }
+
+    /** @return Returns the cache of the separations, null when they are not cached:
+     * the cache is keyed by the formula alone, hence it is used only by the greedy search by GREEDY */
+    private SeparationCache cache() {
+        return beamWidth == 1 && strategy == BuiltinStrategy.GREEDY ? cache : null;
+    }
+
+    /** @return Returns the number of the xs rewritten by the separator so far, the ones of the cache excluded */
+    public long getSteps() { return steps; }
+
+    /** @return Returns the number of the entries of the worklists skipped by the separator so far,
+     * being left by an x pushed again or by an x detached from the formula */
+    public long getWastedPops() { return wastedPops; }
+
     public void setRoot(Formula f) { root = f; }
 
     public Formula getRoot() { return root; }
@@ -48,12 +255,7 @@ public class FormulaSeparator {
 
     /** returns the maximum k value of the top junctions of the paths in f */
     public static int maxKofDegreeM(Formula f, int m) {
-        if(m == 0) return 0;
-        List<Path> paths = f.getPaths().stream().filter(p -> p.getM() == m).toList();
-        List<Junction> topJunctions = new LinkedList<>();
-        paths.forEach(p -> topJunctions.add(p.getTopJunction()));
-        IntStream junctionsMaxK = topJunctions.stream().mapToInt(Junction::getK);
-        return junctionsMaxK.max().getAsInt();
+        return f.getPathMetrics().maxKofDegreeM(m);
     }
 
 
@@ -320,131 +522,290 @@ public class FormulaSeparator {
      * @return A Formula which is a combination of pure past, pure present and pure future formulas
      * @param f the formula which needs to be separated */
     public Formula separate(Formula f) throws ExecutionException, InterruptedException {
+        /* the separation rules work on chains of binary formulae,
+         * hence the n-ary combinations are expanded first */
+        f = CombinationFormula.expand(f);
+        if(!f.needSeparation()) return this.separateXs(f);
+        /* the separation works on the skeleton of the formula, whose pure present subformulae are atoms */
+        PureAbstraction abstraction = pureAbstraction ? new PureAbstraction() : null;
+        Formula skeleton = abstraction != null ? abstraction.abstractPure(f) : f;
+        SeparationCache c = this.cache();
+        Formula separated = c != null ? c.get(skeleton) : null;
+        if(separated == null) {
+            Formula key = c != null ? skeleton.deepCopy() : null;
+            separated = beamWidth == 1 ? this.separateXs(skeleton) : this.beamSearch(skeleton);
+            if(c != null) c.store(key, separated);
+        }
+        root = abstraction != null ? abstraction.restore(separated) : separated;
+        return root;
+    }
+
+    /** Separates the xs of the expanded formula f.
+     * @return Returns the separated formula */
+    private Formula separateXs(Formula f) {
         root = f; // initialize the root with the formula f
-        Stack<BinaryFormula> xs = initializeXStack(f); // initialize the stack of xs
+        XWorklist xs = this.xsOf(f); // initialize the worklist of xs
+        BinaryFormula x;
         // while there is some x to separate
-        //int i = 0;
-        //i != 0 &&
-        while (!xs.isEmpty()) {
-            //i--;
-            BinaryFormula x = xs.pop(); // pop from the top of stack an x
-            if(x.getLoperand() instanceof BinaryFormula lx) x.setLoperand(simplify(lx));
-            if(x.getRoperand() instanceof BinaryFormula rx) x.setRoperand(simplify(rx));
-
-            /* the ys nodes of the junctions in the left subtree starting from x */
-            ArrayList<OperatorFormula> lys = x.getLoperand().searchOperators(x.getOperator().getMirrorOperator());
-            /* the ys nodes of the junctions in the right subtree starting from x */
-            ArrayList<OperatorFormula> rys = x.getRoperand().searchOperators(x.getOperator().getMirrorOperator());
-            /* create a list containing the junctions in the left subtree of x */
-            ArrayList<Junction> ljs = junctionsList(x, lys);
-            /* create a list containing the junctions in the right subtree of x */
-            ArrayList<Junction> rjs = junctionsList(x, rys);
-            /* if the formula x has an eliminable form then */
-            if(isEliminable(x, ljs, rjs)) {
-
-                BinaryFormula newX = applyLemmata(x, ljs, rjs);
-
-                if(newX != x) xs.add(newX);
+        while ((x = xs.pop()) != null) {
+            Choice c = this.step(x, xs);
+            if(c != null) this.eliminate(c.x, c.production(c.chosen), xs);
+        }
+        return root;
+    }
 
-                else {
+    /** Rewrites x, popped from the worklist xs, pushing on xs the new xs to separate.
+     * @return Returns the choice among the productions of the elimination of x,
+     * null if x has been rewritten without an elimination */
+    private Choice step(BinaryFormula x, XWorklist xs) {
+        steps++;
+        /* the rewritings of x are confined to its subtree, hence an x inside the formula
+         * is separated on its own, and its separation is cached, before being replaced */
+        SeparationCache cache = this.cache();
+        if(cache != null && x.getParent() != null && x.needSeparation()) {
+            Formula sx = cache.get(x);
+            if(sx == null) {
+                Formula key = x.deepCopy();
+                FormulaSeparator separator = new FormulaSeparator(cache);
+                separator.setStrategy(strategy);
+                sx = separator.separateXs(CombinationFormula.expand(x.deepCopy()));
+                steps += separator.getSteps();
+                wastedPops += separator.getWastedPops();
+                cache.store(key, sx);
+            }
+            updateRoot(x.replaceFormula(sx));
+            return null;
+        }
+        if(x.getLoperand() instanceof BinaryFormula lx) x.setLoperand(simplify(lx));
+        if(x.getRoperand() instanceof BinaryFormula rx) x.setRoperand(simplify(rx));
+        index.refresh(x);
 
-                    if(ljs.size() == 1) {
-                        Junction lj = ljs.iterator().next();
-                        if(lj.isImmediateChild()) {lj.rewriteImmediateChild();}
-                    }
-                    if(rjs.size() == 1) {
-                        Junction rj = rjs.iterator().next();
-                        if(rj.isImmediateChild()) {rj.rewriteImmediateChild();}
-                    }
+        /* the ys nodes of the junctions in the left subtree starting from x */
+        ArrayList<OperatorFormula> lys = x.getLoperand().searchOperators(x.getOperator().getMirrorOperator());
+        /* the ys nodes of the junctions in the right subtree starting from x */
+        ArrayList<OperatorFormula> rys = x.getRoperand().searchOperators(x.getOperator().getMirrorOperator());
+        /* create a list containing the junctions in the left subtree of x */
+        ArrayList<Junction> ljs = junctionsList(x, lys);
+        /* create a list containing the junctions in the right subtree of x */
+        ArrayList<Junction> rjs = junctionsList(x, rys);
+        /* if the formula x has an eliminable form then */
+        if(isEliminable(x, ljs, rjs)) {
 
-                    ArrayList<Junction[]> eliminationChoices = new ArrayList<>();
-                    if(ljs.size() > 0 && rjs.size() > 0) ljs.forEach(lj -> rjs.forEach(rj -> eliminationChoices.add(new Junction[] {lj, rj})));
-                    if(ljs.size() > 0) ljs.forEach(lj -> eliminationChoices.add(new Junction[] {lj, null}));
-                    if(rjs.size() > 0) rjs.forEach(rj -> eliminationChoices.add(new Junction[] {null, rj}));
-
-                    ArrayList<Formula> eliminationProductions = new ArrayList<>();
-                    eliminationChoices.forEach(
-                            js -> eliminationProductions.add(applyElimination(js[0], js[1]))
-                    );
-
-                    /* 1. determine the productions with the min getDegree */
-                    OptionalInt minDegree = eliminationProductions.stream().mapToInt(Formula::degree).min();
-                    List<Formula> minDegreeProductions = eliminationProductions.stream().filter(p -> p.degree() == minDegree.getAsInt()).toList();
-                    /* 2. map the productions of minimum getDegree to their maximum k value and then
-                     *    choose one of those with the minimum k value */
-                    OptionalInt minK  = minDegreeProductions.stream().mapToInt(p -> maxKofDegreeM(p, minDegree.getAsInt())).min();
-                    List<Formula> candidates = eliminationProductions.stream().filter(p-> maxKofDegreeM(p, minDegree.getAsInt()) == minK.getAsInt()).toList();
-
-                    //System.out.println(minDegreeProductions.size());
-                    //System.out.println(candidates.size());
-
-                    Optional<Formula> chosen = Optional.ofNullable(candidates.iterator().next());
-                    Formula found = chosen.isPresent() ? chosen.get() : x;
-
-                    //found = eliminationProductions.get(1);
-                    //System.out.println(found);
-
-                    if(found != x) {
-                        Formula nx = x.replaceFormula(found);
-                        updateRoot(nx);
-                        // two stacks to preserve the order
-                        Stack<BinaryFormula> nxs = initializeXStack(nx);
-                        Stack<BinaryFormula> aux_stk = new Stack<>();
-                        aux_stk.addAll(nxs);
-                        xs.addAll(aux_stk);
-                    }
-                }
+            BinaryFormula newX = applyLemmata(x, ljs, rjs);
+
+            if(newX != x) xs.push(newX);
 
-            }
-            // if the formula x is not eliminable then apply the transformation to make it so
             else {
-                if(needsLemmaA2OR(x) && ljs.size() > 0) {
-                    // the node that will replace x
-                    Formula new_x = lemmaA2OR(x);
-                    ArrayList<OperatorFormula> new_xs = new_x.searchOperators(x.getOperator());
-                    new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
-                    updateRoot(x.replaceFormula(new_x));
+
+                if(ljs.size() == 1) {
+                    Junction lj = ljs.iterator().next();
+                    if(lj.isImmediateChild()) {lj.rewriteImmediateChild();}
                 }
-                else if(needsLemmaA2AND(x) && rjs.size() > 0) {
-                    // the node that will replace x
-                    Formula new_x = lemmaA2AND(x);
-                    ArrayList<OperatorFormula> new_xs = new_x.searchOperators(x.getOperator());
-                    new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
-                    updateRoot(x.replaceFormula(new_x));
+                if(rjs.size() == 1) {
+                    Junction rj = rjs.iterator().next();
+                    if(rj.isImmediateChild()) {rj.rewriteImmediateChild();}
                 }
-                else {
-                    if(!areArranged(ljs) || !areArranged(rjs)){
-                        ArrayList<OperatorFormula> new_xs = new ArrayList<>();
-                        if(!areArranged(ljs)){
-                            ljs.removeIf(Junction::isArranged);
-                            if(ljs.iterator().hasNext()) {
-                                Junction lj = ljs.iterator().next();
-                                lj.arrange();
-                                new_xs = x.searchOperators(x.getOperator());
-                            }
+
+                ArrayList<Junction[]> eliminationChoices = dominancePruning
+                        ? eliminationChoices(undominated(ljs), undominated(rjs))
+                        : eliminationChoices(ljs, rjs);
+
+                /* the eliminations are prepared in order, since the preparation arranges the x node,
+                 * and the costs of their productions are estimated without building them */
+                Elimination[] eliminations = new Elimination[eliminationChoices.size()];
+                EliminationCost[] costs = new EliminationCost[eliminations.length];
+                for(int i = 0; i < eliminations.length; i++) {
+                    eliminations[i] = prepareElimination(eliminationChoices.get(i)[0], eliminationChoices.get(i)[1]);
+                    costs[i] = eliminations[i].estimate();
+                }
+
+                int chosen = strategy.choose(costs);
+
+                if(eliminations[chosen].getNumber() != 0) return new Choice(x, eliminations, costs, chosen);
+            }
+
+        }
+        // if the formula x is not eliminable then apply the transformation to make it so
+        else {
+            if(needsLemmaA2OR(x) && ljs.size() > 0) {
+                // the node that will replace x
+                Formula new_x = lemmaA2OR(x);
+                ArrayList<OperatorFormula> new_xs = new_x.searchOperators(x.getOperator());
+                new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
+                updateRoot(x.replaceFormula(new_x));
+            }
+            else if(needsLemmaA2AND(x) && rjs.size() > 0) {
+                // the node that will replace x
+                Formula new_x = lemmaA2AND(x);
+                ArrayList<OperatorFormula> new_xs = new_x.searchOperators(x.getOperator());
+                new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
+                updateRoot(x.replaceFormula(new_x));
+            }
+            else {
+                if(!areArranged(ljs) || !areArranged(rjs)){
+                    ArrayList<OperatorFormula> new_xs = new ArrayList<>();
+                    if(!areArranged(ljs)){
+                        ljs.removeIf(Junction::isArranged);
+                        if(ljs.iterator().hasNext()) {
+                            Junction lj = ljs.iterator().next();
+                            lj.arrange();
+                            new_xs = x.searchOperators(x.getOperator());
                         }
-                        if(!areArranged(rjs)){
-                            rjs.removeIf(Junction::isArranged);
-                            if(rjs.iterator().hasNext()) {
-                                Junction rj = rjs.iterator().next();
-                                rj.arrange();
-                                new_xs = x.searchOperators(x.getOperator());
-                            }
+                    }
+                    if(!areArranged(rjs)){
+                        rjs.removeIf(Junction::isArranged);
+                        if(rjs.iterator().hasNext()) {
+                            Junction rj = rjs.iterator().next();
+                            rj.arrange();
+                            new_xs = x.searchOperators(x.getOperator());
                         }
-                        new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
                     }
+                    new_xs.forEach(nx -> {if(nx.needSeparation()) xs.push((BinaryFormula) nx); });
                 }
             }
         }
-        return root;
+        return null;
+    }
+
+    /** Replaces x with the production found by its elimination and pushes on xs the new xs to separate. */
+    private void eliminate(BinaryFormula x, Formula found, XWorklist xs) {
+        Formula nx = x.replaceFormula(found);
+        updateRoot(nx);
+        /* the new xs are pushed from the bottom of their stack to preserve the order */
+        List<BinaryFormula> nxs = this.orderedXs(nx);
+        for(int i = nxs.size() - 1; i >= 0; i--) xs.push(nxs.get(i));
+    }
+
+    /** Separates the expanded formula f by a beam search.
+     * The greedy separation of a copy of f is the first result, and its size bounds the rewritings:
+     * a partial rewriting growing larger than the smallest result found is abandoned.
+     * @return Returns the smallest separated formula found
+     * @see #setBeamSearch(int, int) */
+    private Formula beamSearch(Formula f) {
+        Formula best = this.separateXs(f.deepCopy());
+        ArrayList<State> beam = new ArrayList<>(List.of(new State(f, this.xsOf(f))));
+        int forks = 0;
+        while(!beam.isEmpty()) {
+            ArrayList<State> next = new ArrayList<>();
+            for(State s : beam) {
+                if(!this.advance(s, forks < beamBudget, best.size())) continue;
+                if(s.choice == null) {
+                    if(isSmaller(s.root, best)) best = s.root;
+                    continue;
+                }
+                List<Integer> alternatives = s.choice.alternatives(beamWidth);
+                for(int i = 1; i < alternatives.size() && forks < beamBudget; i++, forks++) {
+                    next.add(this.fork(s, s.choice.production(alternatives.get(i))));
+                }
+                this.resume(s, s.choice.production(alternatives.get(0)));
+                next.add(s);
+            }
+            beam = prune(next, beamWidth);
+        }
+        root = best;
+        return best;
+    }
+
+    /** Rewrites the formula of the state s until an elimination offers more productions, if branch is true,
+     * or until the formula is separated.
+     * @return Returns false if the formula has grown larger than bound, then the state is abandoned */
+    private boolean advance(State s, boolean branch, int bound) {
+        root = s.root;
+        s.choice = null;
+        BinaryFormula x;
+        while((x = s.xs.pop()) != null) {
+            Choice c = this.step(x, s.xs);
+            if(c == null) continue;
+            if(branch && c.alternatives(2).size() > 1) {
+                s.choice = c;
+                break;
+            }
+            this.eliminate(c.x, c.production(c.chosen), s.xs);
+            if(root.size() > bound) return false;
+        }
+        s.root = root;
+        return true;
+    }
+
+    /** Follows in the state s the production of the elimination on which it waits. */
+    private void resume(State s, Formula production) {
+        root = s.root;
+        this.eliminate(s.choice.x, production, s.xs);
+        s.root = root;
+    }
+
+    /** @return Returns a copy of the state s which follows the production of the elimination on which s waits */
+    private State fork(State s, Formula production) {
+        Formula copy = s.root.deepCopy();
+        ArrayList<BinaryFormula> pending = new ArrayList<>();
+        for(BinaryFormula x : s.xs.pending()) {
+            Formula cx = follow(copy, pathOf(s.root, x));
+            if(cx != null) pending.add((BinaryFormula) cx);
+        }
+        root = copy;
+        XWorklist xs = new XWorklist(pending);
+        State c = new State(copy, xs);
+        this.eliminate((BinaryFormula) follow(copy, pathOf(s.root, s.choice.x)), production, xs);
+        c.root = root;
+        return c;
+    }
+
+    /** @return Returns the best width states, ranked by degree, k of the degree and size */
+    private static ArrayList<State> prune(ArrayList<State> states, int width) {
+        states.forEach(State::rank);
+        ArrayList<State> kept = new ArrayList<>();
+        states.stream()
+                .sorted(Comparator.comparingInt((State s) -> s.degree).thenComparingInt(s -> s.k).thenComparingInt(s -> s.size))
+                .limit(width)
+                .forEach(kept::add);
+        return kept;
+    }
+
+    /** @return Returns true if, and only if, f is separated and it is smaller than g, or g is not separated */
+    private static boolean isSmaller(Formula f, Formula g) {
+        if(f.isSeparated() != g.isSeparated()) return f.isSeparated();
+        int fs = f.size(), gs = g.size();
+        return fs < gs || (fs == gs && f.degree() < g.degree());
+    }
+
+    /** @return Returns the positions of the operands leading from root to n, null if n is not inside root */
+    private static int[] pathOf(Formula root, Formula n) {
+        ArrayDeque<Integer> path = new ArrayDeque<>();
+        while(n != root) {
+            Formula p = n.getParent();
+            if(p == null) return null;
+            int i = 0;
+            while(i < p.getArity() && p.getOperand(i) != n) i++;
+            if(i == p.getArity()) return null;
+            path.push(i);
+            n = p;
+        }
+        return path.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** @return Returns the node of f reached by the positions of the path, null if the path is null */
+    private static Formula follow(Formula f, int[] path) {
+        if(path == null) return null;
+        for(int i : path) f = f.getOperand(i);
+        return f;
+    }
+
+    /** @return Returns the worklist of the xs of the formula f, in the order of the strategy */
+    private XWorklist xsOf(Formula f) { return new XWorklist(this.orderedXs(f)); }
+
+    /** @return Returns the xs of the formula f in the order of the strategy, from the top of their stack */
+    private List<BinaryFormula> orderedXs(Formula f) {
+        ArrayList<BinaryFormula> xs = new ArrayList<>(initializeXStack(f));
+        strategy.order(xs);
+        return xs;
     }
 
     /** Initializes the stack with the nodes of the formula that need to be separated.
      * It is used a stack to simulate a recursive function and to optimize in this way
      * the computations. */
-    protected static Stack<BinaryFormula> initializeXStack(Formula phi) {
-        Stack<BinaryFormula> stk = new Stack<>();
-        Queue<Formula> q = new LinkedList<>();
+    protected static ArrayDeque<BinaryFormula> initializeXStack(Formula phi) {
+        ArrayDeque<BinaryFormula> stk = new ArrayDeque<>();
+        ArrayDeque<Formula> q = new ArrayDeque<>();
         q.add(phi); // initialize the queue with the input node
         while(!q.isEmpty()) { // while the queue is not empty
             Formula f = q.remove();
@@ -459,10 +820,10 @@ public class FormulaSeparator {
                     }
                     /* if f is a BinaryFormula and need to be separated
                      * then if it has UNTIL or SINCE as operator that means
-                     * it should be separated so add it to the stack  */
+                     * it should be separated so push it on the stack  */
                     if(of instanceof BinaryFormula bf) {
                         if(bf.isOperator(UNTIL) || bf.isOperator(SINCE)) {
-                            stk.add(bf);
+                            stk.push(bf);
                         }
                         /* add the two children to the search queue */
                         q.add(bf.getRoperand());
@@ -474,6 +835,78 @@ public class FormulaSeparator {
         return stk;
     }
 
+    /** Lists the elimination choices of the junctions of x, the pairs first and then the single junctions,
+     * leaving out the ones which can never be chosen. A pair of junctions whose ys are not the same formula,
+     * both being nested under an operator, and a junction alone which matches no elimination, produce x itself:
+     * all these no-op choices have the same cost, hence only the first one is kept, in its place, and a strategy
+     * choosing the first of the productions of equal cost makes the same choice as among all of them.
+     * The pairs are found by the structural hash of their ys, hence they are not enumerated one by one.
+     * @return Returns the elimination choices, in the order of the separator */
+    public static ArrayList<Junction[]> eliminationChoices(ArrayList<Junction> ljs, ArrayList<Junction> rjs) {
+        ArrayList<Junction[]> choices = new ArrayList<>();
+        /* the positions of the right junctions by the hash of their ys, and the ones not nested under an operator */
+        HashMap<Integer, List<Integer>> byY = new HashMap<>();
+        ArrayList<Integer> unnested = new ArrayList<>();
+        for(int i = 0; i < rjs.size(); i++) {
+            Junction rj = rjs.get(i);
+            if(junctionCase(rj) == 0) unnested.add(i);
+            else byY.computeIfAbsent(rj.getY().structuralHash(), h -> new ArrayList<>(1)).add(i);
+        }
+        boolean noOp = false; // whether a no-op choice has been kept
+        for(Junction lj : ljs) {
+            TreeSet<Integer> candidates = new TreeSet<>(unnested);
+            if(junctionCase(lj) == 0) for(List<Integer> l : byY.values()) candidates.addAll(l);
+            else candidates.addAll(byY.getOrDefault(lj.getY().structuralHash(), List.of()));
+            /* the first no-op pair of lj, while none has been kept */
+            for(int i = 0; !noOp && i < rjs.size(); i++) {
+                if(isNoOp(lj, rjs.get(i))) {
+                    candidates.add(i);
+                    break;
+                }
+            }
+            for(int i : candidates) {
+                boolean n = isNoOp(lj, rjs.get(i));
+                if(n && noOp) continue;
+                noOp |= n;
+                choices.add(new Junction[] {lj, rjs.get(i)});
+            }
+        }
+        for(Junction lj : ljs) {
+            boolean n = eliminationNumber(lj, null) == 0;
+            if(n && noOp) continue;
+            noOp |= n;
+            choices.add(new Junction[] {lj, null});
+        }
+        for(Junction rj : rjs) {
+            boolean n = eliminationNumber(null, rj) == 0;
+            if(n && noOp) continue;
+            noOp |= n;
+            choices.add(new Junction[] {null, rj});
+        }
+        return choices;
+    }
+
+    /** Leaves out of the junctions js the ones dominated by another junction of the same case
+     * whose y has the same degree m but a smaller k.
+     * @return Returns the junctions which are not dominated, in their order */
+    public static ArrayList<Junction> undominated(ArrayList<Junction> js) {
+        /* the minimum k of the junctions for each case and degree of their ys */
+        HashMap<List<Integer>, Integer> minK = new HashMap<>();
+        for(Junction j : js) minK.merge(List.of(junctionCase(j), j.getY().degree()), j.getK(), Math::min);
+        ArrayList<Junction> kept = new ArrayList<>();
+        for(Junction j : js) {
+            if(j.getK() == minK.get(List.of(junctionCase(j), j.getY().degree()))) kept.add(j);
+        }
+        return kept;
+    }
+
+    /** @return Returns true if, and only if, the pair of junctions lj and rj matches no elimination */
+    private static boolean isNoOp(Junction lj, Junction rj) {
+        /* the ys of different hashes are not the same formula */
+        if(junctionCase(lj) != 0 && junctionCase(rj) != 0 && lj.getY().structuralHash() != rj.getY().structuralHash()) return true;
+        return eliminationNumber(lj, rj) == 0;
+    }
+
     private boolean isEliminable(BinaryFormula x, ArrayList<Junction> ljs, ArrayList<Junction> rjs) {
         if(ljs.isEmpty() && rjs.isEmpty()) return false;
 
@@ -490,7 +923,7 @@ public class FormulaSeparator {
      *  and whose children are already separated
      *  @param phi the Formula from which start the search */
     public static BinaryFormula searchX(Formula phi) {
-        Queue<Formula> q = new LinkedList<>();
+        ArrayDeque<Formula> q = new ArrayDeque<>();
         q.add(phi);
         while(!q.isEmpty()) {
             Formula f = q.remove();
@@ -518,7 +951,7 @@ public class FormulaSeparator {
     }
 
     public static OperatorFormula getNextOperator(OperatorFormula phi, Operator op) {
-        Queue<Formula> q = new LinkedList<>();
+        ArrayDeque<Formula> q = new ArrayDeque<>();
         if(phi instanceof UnaryFormula uPhi) q.add(uPhi.getOperand());
         if(phi instanceof BinaryFormula bPhi) {
             q.add(bPhi.getLoperand());
@@ -527,6 +960,8 @@ public class FormulaSeparator {
         // while the queue is not empty repeat
         while(!q.isEmpty()) {
             Formula f = q.remove();
+            // the subtrees which do not contain op are skipped
+            if(f.countOperator(op) == 0) continue;
             if(f instanceof OperatorFormula of){
                 /* if the operator is found add the corresponding formula to the result
                  * else iterate the search on the children nodes */
@@ -57,11 +57,13 @@ public class FormulaSimplifier {
                      * remove the opposite formula from the list of new operands and add the truth value atom */
 
                     if(!oppositeFormulae.isEmpty()) {
-                        // it is true if, and only if, the truth value is already a new operand
+                        /* the opposite formulae are removed first, since the truth value itself
+                         * is removed when x is its opposite */
+                        oppositeFormulae.forEach(newOperands::remove);
+                        // it is true if, and only if, the truth value is not a new operand
                         boolean notContainsTruthAtom = newOperands.stream().noneMatch(
                                 z -> z instanceof AtomicFormula az && az.isTruthValue(truthConstant)
                         );
-                        oppositeFormulae.forEach(newOperands::remove);
                         if(notContainsTruthAtom) newOperands.add(new AtomicFormula(truthConstant));
                     }
                     else newOperands.add(x);
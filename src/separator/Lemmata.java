@@ -3,6 +3,7 @@ package separator;
 import formula.BinaryFormula;
 import formula.Formula;
 import formula.Operator;
+import formula.RuleTrace;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -86,7 +87,7 @@ public abstract class Lemmata {
         // U((A|B), C) =>* U(A,C) | U(B,C)
         if(f.getLoperand().isOperator(OR)) {
             BinaryFormula lf = (BinaryFormula) f.getLoperand();
-            System.out.println("LemmaA2");
+            RuleTrace.rule("LemmaA2");
             // U(A,C) | U(B,C)
             return new BinaryFormula (
                     OR,
@@ -126,7 +127,7 @@ public abstract class Lemmata {
         // U(A, (B&C)) =>* U(A,B) & U(A,C)
         if(f.getRoperand().isOperator(AND)){
             BinaryFormula rf = (BinaryFormula) f.getRoperand();
-            System.out.println("LemmaA2");
+            RuleTrace.rule("LemmaA2");
             // U(A,B) & U(A,C)
             return new BinaryFormula(
                     AND,
@@ -166,7 +167,7 @@ public abstract class Lemmata {
     /** AND case: U(A,B) & U(A,C) =>* U(A, B&C)
      *  OR case:  U(A,C) | U(B,C) =>* U(A|B, C) */
     public static BinaryFormula reversedLemmaA2(Operator op, BinaryFormula f1, BinaryFormula f2) {
-        System.out.println("ReversedLemmaA2");
+        RuleTrace.rule("ReversedLemmaA2");
         if(op.equals(AND)) return reversedLemmaA2AND(f1, f2);
         if(op.equals(OR)) return reversedLemmaA2OR(f1, f2);
         throw new IllegalArgumentException(
@@ -208,7 +209,7 @@ public abstract class Lemmata {
     // pre: fms obtained by lemma A1
     public static BinaryFormula reversedLemmaA2(Collection<BinaryFormula> fms) {
 
-        System.out.println("ReversedLemmaA2");
+        RuleTrace.rule("ReversedLemmaA2");
 
         BinaryFormula f = fms.iterator().next();
         ArrayList<Formula> leftChildren = new ArrayList<>();
@@ -236,7 +237,7 @@ public abstract class Lemmata {
             );
         }
 
-        System.out.println("LemmaA1");
+        RuleTrace.rule("LemmaA1");
 
         Operator op = f1.getOperator();
         Formula[] fms = {
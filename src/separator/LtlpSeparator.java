@@ -0,0 +1,112 @@
+package separator;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import parser.FormulaParser;
+import parser.ParseException;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/** The LtlpSeparator class is the entry point of the separation as a library.
+ * Its methods keep no state between the calls: each call works on its own context,
+ * holding the parser and the stages which keep the formula they are rewriting,
+ * and on its own copy of the input formula, hence they can be called concurrently
+ * by any number of threads without external synchronization.
+ * The separations are memoized in a SeparationCache, shared by all the calls unless another one is passed,
+ * and they may be persisted in a SeparationStore, shared by the runs.
+ * The formulae are separated by the default settings unless other SeparationSettings are passed,
+ * in which case the separations are neither looked up nor memoized.
+ * @see SeparationResult
+ * @see SeparationCache
+ * @see SeparationStore */
+public final class LtlpSeparator {
+
+    /** The state of a single call: the stages of the separation and the parser of its input */
+    private static final class Context {
+
+        private final FormulaConverter converter = new FormulaConverter();
+        private final FormulaSeparator separator;
+        private final FormulaNormalizer normalizer = new FormulaNormalizer();
+
+        private Context(SeparationCache cache, SeparationSettings settings) {
+            this.separator = new FormulaSeparator(cache);
+            settings.applyTo(separator);
+        }
+
+        private Formula parse(String s) throws ParseException {
+            return new FormulaParser().parse(s);
+        }
+
+        /** Converts, separates and normalizes phi, which is rewritten in place. */
+        private SeparationResult separate(Formula input, Formula phi) throws InterruptedException {
+            long start = System.nanoTime();
+            Formula separated;
+            try {
+                separated = separator.separate(converter.convert(phi));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+            /* the normalization rewrites the separated formula, which is kept in the result */
+            Formula normalized = normalizer.normalize(separated.deepCopy());
+            PureFormulaeMatrix m = normalizer.getPureFormulaeMatrix(normalized);
+            return new SeparationResult(input, separated, normalized, m, System.nanoTime() - start);
+        }
+
+    }
+
+    private LtlpSeparator() {}
+
+    /** Separates the formula written in s.
+     * @return Returns the result of the separation
+     * @throws ParseException if s is not a well formed formula */
+    public static SeparationResult separate(String s) throws ParseException, InterruptedException {
+        Context c = new Context(SeparationCache.getDefault(), SeparationSettings.DEFAULT);
+        Formula input = c.parse(s);
+        return c.separate(input, input.deepCopy());
+    }
+
+    /** Separates the formula f, which is not modified.
+     * @return Returns the result of the separation */
+    public static SeparationResult separate(Formula f) throws InterruptedException {
+        return separate(f, SeparationCache.getDefault());
+    }
+
+    /** Separates the formula f, which is not modified, memoizing the separations in cache
+     * unless it is null.
+     * @return Returns the result of the separation */
+    public static SeparationResult separate(Formula f, SeparationCache cache) throws InterruptedException {
+        return separate(f, cache, SeparationSettings.DEFAULT);
+    }
+
+    /** Separates the formula f, which is not modified, by the given settings, memoizing the separations
+     * in cache unless it is null or the settings are not the default ones.
+     * @return Returns the result of the separation */
+    public static SeparationResult separate(Formula f, SeparationCache cache, SeparationSettings settings)
+            throws InterruptedException {
+        Formula input = f.deepCopy();
+        return new Context(cache, settings).separate(input, input.deepCopy());
+    }
+
+    /** Separates the formula f, which is not modified, unless the store already holds its separation.
+     * A new separation is appended to the store.
+     * @return Returns the result of the separation, the stored one if any
+     * @throws IOException if the store cannot be read or written */
+    public static SeparationResult separateStored(Formula f, SeparationStore store) throws IOException, InterruptedException {
+        return separateStored(f, store, SeparationSettings.DEFAULT);
+    }
+
+    /** Separates the formula f, which is not modified, by the given settings. The store holds the separations
+     * by the default settings, hence it is used only when the settings are the default ones.
+     * @return Returns the result of the separation, the stored one if any
+     * @throws IOException if the store cannot be read or written */
+    public static SeparationResult separateStored(Formula f, SeparationStore store, SeparationSettings settings)
+            throws IOException, InterruptedException {
+        if(!settings.isCached()) return separate(f, null, settings);
+        SeparationResult r = store.get(f);
+        if(r != null) return r;
+        r = separate(f);
+        store.put(r);
+        return r;
+    }
+
+}
@@ -0,0 +1,86 @@
+package separator;
+
+import formula.AtomicFormula;
+import formula.Formula;
+import formula.FormulaTraversal;
+import formula.OperatorFormula;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import static formula.Operator.AND;
+import static formula.Operator.NOT;
+import static formula.Operator.OR;
+import static formula.TimeConstant.PRESENT;
+
+/** The PureAbstraction class replaces the pure subformulae of a formula by placeholder atoms
+ * while it is separated, and then puts them back.
+ * Only the maximal pure present subformulae are abstracted: the separation rules never look inside them,
+ * whereas they must open the pure past and future subformulae, which are junctions or may become
+ * junctions when they are moved under a mirror operator, hence these are kept.
+ * The negations are not abstracted, their operand is, so that the separator still sees a formula
+ * next to its negation, and neither are the links of a chain of conjunctions or disjunctions, its operands are,
+ * so that the simplifier still sees the operands of the chain; equal subformulae share the same placeholder.
+ * The placeholders are named by an underscore and a number, which no atom of the parser can be.
+ * @see FormulaSeparator#separate(Formula) */
+final class PureAbstraction {
+
+    private static final String PLACEHOLDER = "_";
+
+    /** The abstracted subformulae of each placeholder */
+    private final HashMap<String, Formula> originals = new HashMap<>();
+
+    /** The placeholders of the abstracted subformulae, by their structural hash */
+    private final HashMap<Integer, List<String>> placeholders = new HashMap<>();
+
+    /** Replaces in place the maximal pure present subformulae of f by placeholder atoms.
+     * @return Returns the abstracted formula, which takes the place of f */
+    Formula abstractPure(Formula f) {
+        ArrayList<Formula> pure = new ArrayList<>();
+        FormulaTraversal.preOrder(f, n -> {
+            if(!n.isPure(PRESENT) || n.isOperator(NOT) || isChainLink(n)) return true;
+            if(!(n instanceof AtomicFormula)) pure.add(n);
+            return false;
+        });
+        for(Formula p : pure) {
+            String placeholder = this.placeholderOf(p);
+            Formula a = p.replaceFormula(new AtomicFormula(placeholder));
+            if(p == f) f = a;
+        }
+        return f;
+    }
+
+    /** Replaces in place the placeholder atoms of f by copies of the subformulae they abstract.
+     * @return Returns the restored formula, which takes the place of f */
+    Formula restore(Formula f) {
+        if(originals.isEmpty()) return f;
+        ArrayList<AtomicFormula> atoms = new ArrayList<>();
+        FormulaTraversal.preOrder(f, n -> {
+            if(n instanceof AtomicFormula af && originals.containsKey(af.getImage())) atoms.add(af);
+            return true;
+        });
+        for(AtomicFormula a : atoms) {
+            Formula o = a.replaceFormula(originals.get(a.getImage()).deepCopy());
+            if(a == f) f = o;
+        }
+        return f;
+    }
+
+    /** @return Returns the placeholder of the subformula p, the one of an equal subformula if it has been abstracted */
+    private String placeholderOf(Formula p) {
+        List<String> candidates = placeholders.computeIfAbsent(p.structuralHash(), h -> new ArrayList<>(1));
+        for(String c : candidates) if(originals.get(c).equalTo(p)) return c;
+        String placeholder = PLACEHOLDER + originals.size();
+        candidates.add(placeholder);
+        originals.put(placeholder, p);
+        return placeholder;
+    }
+
+    /** @return Returns true if, and only if, n is a conjunction or a disjunction operand of a chain of the same operator */
+    private static boolean isChainLink(Formula n) {
+        return (n.isOperator(AND) || n.isOperator(OR)) && n.getParent() != null && n.getParent().isOperator(((OperatorFormula) n).getOperator());
+    }
+
+    /** @return Returns the number of the placeholders */
+    int size() { return originals.size(); }
+
+}
@@ -63,6 +63,11 @@ public class PureFormulaeMatrix {
 
     public void print() { System.out.println(this); }
 
+    /** @return Returns the i-th triple of the matrix: its pure past, present and future formulae */
+    public Formula[] getTriple(int i) {
+        return matrix.get(i).clone();
+    }
+
     public int getDegree() {
         return matrix.size();
     }
@@ -0,0 +1,148 @@
+package separator;
+
+import formula.Formula;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** The SeparationCache class memoizes the separations of the formulae.
+ * The formulae are keyed on their structure, hence a formula finds the separation of any formula
+ * equal to it according to equalTo, that is modulo the order of the operands of the combinations.
+ * The cache is bounded by the total number of nodes of its formulae, keys included,
+ * and the least recently used separations are evicted first.
+ * The keys and the separations are copies owned by the cache, and each hit returns a new copy,
+ * hence the cached formulae are never modified. The cache is safe to be shared between threads.
+ * @see FormulaSeparator#FormulaSeparator(SeparationCache)
+ * @see Formula#equalTo(Formula) */
+public final class SeparationCache {
+
+    /** The bound of the default cache, in nodes, unless the property ltlp.cache.nodes is set */
+    private static final long DEFAULT_CAPACITY = 1 << 20;
+
+    private static final SeparationCache DEFAULT =
+            new SeparationCache(Long.getLong("ltlp.cache.nodes", DEFAULT_CAPACITY));
+
+    /** A formula used as a key: its hash is the structural one, its equality is equalTo */
+    private static final class Key {
+
+        private final Formula formula;
+        private final int hash;
+
+        private Key(Formula f) {
+            this.formula = f;
+            this.hash = f.structuralHash();
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key k && hash == k.hash && formula.equalTo(k.formula);
+        }
+
+        public int hashCode() { return hash; }
+
+    }
+
+    /** A cached separation with the number of nodes it takes, key included */
+    private static final class Entry {
+
+        private final Formula separated;
+        private final int weight;
+
+        private Entry(Formula separated, int weight) {
+            this.separated = separated;
+            this.weight = weight;
+        }
+
+    }
+
+    private final long capacity;
+
+    /** The entries in access order, from the least recently used one */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /** Initializes a newly created empty SeparationCache holding at most capacity nodes. */
+    public SeparationCache(long capacity) {
+        if(capacity < 0) throw new IllegalArgumentException(
+                String.format("The capacity must not be negative but it is %d", capacity)
+        );
+        this.capacity = capacity;
+    }
+
+    /** @return Returns the cache shared by default, whose capacity is given by the property ltlp.cache.nodes */
+    public static SeparationCache getDefault() { return DEFAULT; }
+
+    /** @return Returns a copy of the cached separation of a formula equal to f, null if there is none */
+    public Formula get(Formula f) {
+        Key k = new Key(f);
+        Entry e;
+        synchronized (this) {
+            e = entries.get(k);
+            if(e == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return e.separated.deepCopy();
+    }
+
+    /** Caches the separation s of the formula f, storing a copy of both. */
+    public void put(Formula f, Formula s) {
+        this.store(f.deepCopy(), s);
+    }
+
+    /** Caches the separation s of the formula key, storing a copy of s.
+     * The key is stored as it is, hence it must not be modified afterwards. */
+    void store(Formula key, Formula s) {
+        if(capacity == 0) return;
+        int w = key.size() + s.size();
+        if(w > capacity) return;
+        Key k = new Key(key);
+        Entry e = new Entry(s.deepCopy(), w);
+        synchronized (this) {
+            Entry old = entries.put(k, e);
+            if(old != null) weight -= old.weight;
+            weight += w;
+            Iterator<Map.Entry<Key, Entry>> itr = entries.entrySet().iterator();
+            while(weight > capacity) {
+                weight -= itr.next().getValue().weight;
+                itr.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /** @return Returns the maximum number of nodes held by the cache */
+    public long getCapacity() { return capacity; }
+
+    /** @return Returns the number of nodes held by the cache, keys included */
+    public synchronized long getWeight() { return weight; }
+
+    /** @return Returns the number of cached separations */
+    public synchronized int size() { return entries.size(); }
+
+    /** @return Returns the number of the lookups which found a separation */
+    public synchronized long getHits() { return hits; }
+
+    /** @return Returns the number of the lookups which found no separation */
+    public synchronized long getMisses() { return misses; }
+
+    /** @return Returns the number of the separations evicted to respect the capacity */
+    public synchronized long getEvictions() { return evictions; }
+
+    /** Removes all the separations, the counters are kept. */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized String toString() {
+        return String.format("separation cache: %d separations, %d/%d nodes, %d hits, %d misses, %d evictions",
+                entries.size(), weight, capacity, hits, misses, evictions);
+    }
+
+}
@@ -0,0 +1,46 @@
+package separator;
+
+import formula.Formula;
+
+/** The SeparationResult class holds the outcome of the separation of a formula
+ * performed by LtlpSeparator: the input formula, the separated formula,
+ * its normalization and the corresponding matrix of pure formulae.
+ * The formulae of the result are not shared with the caller nor with other results.
+ * @see LtlpSeparator */
+public final class SeparationResult {
+
+    private final Formula formula;
+    private final Formula separated;
+    private final Formula normalized;
+    private final PureFormulaeMatrix matrix;
+    private final long nanos;
+
+    SeparationResult(Formula formula, Formula separated, Formula normalized, PureFormulaeMatrix matrix, long nanos) {
+        this.formula = formula;
+        this.separated = separated;
+        this.normalized = normalized;
+        this.matrix = matrix;
+        this.nanos = nanos;
+    }
+
+    /** @return Returns the formula which has been separated */
+    public Formula getFormula() { return formula; }
+
+    /** @return Returns the separated formula, a combination of pure past, present and future formulae */
+    public Formula getSeparated() { return separated; }
+
+    /** @return Returns the separated formula in disjunctive normal form */
+    public Formula getNormalized() { return normalized; }
+
+    /** @return Returns the matrix of the pure formulae of the normalized formula */
+    public PureFormulaeMatrix getMatrix() { return matrix; }
+
+    /** @return Returns the degree of the normalized formula, the number of its disjuncts */
+    public int getDegree() { return matrix.getDegree(); }
+
+    /** @return Returns the time spent on the separation, in nanoseconds */
+    public long getNanos() { return nanos; }
+
+    public String toString() { return normalized.toString(); }
+
+}
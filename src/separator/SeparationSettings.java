@@ -0,0 +1,55 @@
+package separator;
+
+import java.util.Objects;
+
+/** The SeparationSettings class holds the settings of the search of a separation: the strategy
+ * and the width and the budget of the beam search, as set on a FormulaSeparator.
+ * The settings are immutable, hence they can be shared by the separations running on any number of threads.
+ * The caches and the stores of the separations are keyed by the formula alone, and they hold the separations
+ * made by the default settings, the greedy search by the GREEDY strategy: the other settings bypass them.
+ * @see FormulaSeparator#setStrategy(SeparationStrategy)
+ * @see FormulaSeparator#setBeamSearch(int, int) */
+public final class SeparationSettings {
+
+    /** The settings of a FormulaSeparator by default */
+    public static final SeparationSettings DEFAULT = new SeparationSettings(BuiltinStrategy.GREEDY, 1, 0);
+
+    private final SeparationStrategy strategy;
+    private final int beamWidth;
+    private final int beamBudget;
+
+    /** Initializes newly created SeparationSettings separating by the strategy with the given beam search,
+     * the greedy one when the width is 1. */
+    public SeparationSettings(SeparationStrategy strategy, int beamWidth, int beamBudget) {
+        if(beamWidth < 1 || beamBudget < 0) throw new IllegalArgumentException(
+                String.format("The width must be positive and the budget not negative but they are %d and %d", beamWidth, beamBudget)
+        );
+        this.strategy = Objects.requireNonNull(strategy);
+        this.beamWidth = beamWidth;
+        this.beamBudget = beamBudget;
+    }
+
+    /** @return Returns the strategy ordering the xs and choosing the productions of the eliminations */
+    public SeparationStrategy getStrategy() { return strategy; }
+
+    /** @return Returns the number of partial rewritings kept by the beam search, 1 when the search is greedy */
+    public int getBeamWidth() { return beamWidth; }
+
+    /** @return Returns the number of forks of the beam search */
+    public int getBeamBudget() { return beamBudget; }
+
+    /** @return Returns true if, and only if, the separations are the ones of the cache and of the store,
+     * that is the search is greedy and the strategy is GREEDY */
+    public boolean isCached() { return beamWidth == 1 && strategy == BuiltinStrategy.GREEDY; }
+
+    /** Sets these settings on the separator s. */
+    public void applyTo(FormulaSeparator s) {
+        s.setStrategy(strategy);
+        s.setBeamSearch(beamWidth, beamBudget);
+    }
+
+    public String toString() {
+        return beamWidth == 1 ? String.valueOf(strategy) : String.format("%s, beam %d/%d", strategy, beamWidth, beamBudget);
+    }
+
+}
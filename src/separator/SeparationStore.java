@@ -0,0 +1,261 @@
+package separator;
+
+import formula.*;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import static java.nio.file.StandardOpenOption.*;
+
+/** The SeparationStore class is a persistent cache of the separations, kept in a file shared by the runs.
+ * The file is append-only: after a header, each record holds the structural hash of a formula,
+ * the formula itself, its separation, the normalized separation and the matrix of its pure formulae.
+ * The formulae are encoded in post order, each atom being written once per record and then referred
+ * by its number, so that they are decoded without recursion.
+ * When the store is opened the records are indexed by their hash and the file is mapped in memory,
+ * hence a lookup reads the mapped pages and decodes the record whose formula is equal to the given one.
+ * A record left incomplete by an interrupted run is discarded when the store is opened.
+ * The store is safe to be shared between threads, and the appends of different processes are serialized
+ * by a lock on the file, although the records appended by another process are seen when it is reopened.
+ * @see SeparationCache
+ * @see LtlpSeparator#separateStored(Formula, SeparationStore) */
+public final class SeparationStore implements Closeable {
+
+    private static final byte[] MAGIC = "LTLPSEP1".getBytes(StandardCharsets.US_ASCII);
+
+    /** The node codes of the encoding: a new atom, an atom already written, an operator, a combination */
+    private static final int ATOM = 0, ATOM_REF = 1, OPERATOR = 0x10, COMBINATION = 0x40;
+
+    private final FileChannel channel;
+
+    /** The offsets of the records for each structural hash */
+    private final HashMap<Integer, List<Integer>> index = new HashMap<>();
+
+    private MappedByteBuffer mapped;
+    private int size;
+
+    private SeparationStore(FileChannel channel) { this.channel = channel; }
+
+    /** Opens the store kept in the file p, which is created if it does not exist.
+     * @return Returns the store
+     * @throws IOException if p cannot be read or written, or it is not a separation store */
+    public static SeparationStore open(Path p) throws IOException {
+        FileChannel ch = FileChannel.open(p, CREATE, READ, WRITE);
+        SeparationStore s = new SeparationStore(ch);
+        try {
+            s.load();
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        return s;
+    }
+
+    /** An open subroutine. Checks the header and indexes the records of the file, holding its lock,
+     * so that a record being appended by another process is not taken for an interrupted one. */
+    private void load() throws IOException {
+        FileLock lock = channel.lock();
+        try {
+            this.scan();
+        } finally {
+            lock.release();
+        }
+    }
+
+    /** A load subroutine. Checks the header, indexes the records of the file and discards an interrupted one. */
+    private void scan() throws IOException {
+        long length = channel.size();
+        if(length > Integer.MAX_VALUE) throw new IOException("The separation store exceeds 2GB");
+        if(length == 0) {
+            channel.write(ByteBuffer.wrap(MAGIC), 0);
+            length = MAGIC.length;
+        }
+        size = (int) length;
+        this.map();
+        if(size < MAGIC.length || !ByteBuffer.wrap(MAGIC).equals(mapped.duplicate().limit(MAGIC.length))) {
+            throw new IOException("The file is not a separation store");
+        }
+        int pos = MAGIC.length;
+        while(pos + 8 <= size) {
+            int n = mapped.getInt(pos);
+            if(n < 4 || pos + 4L + n > size) break;
+            index.computeIfAbsent(mapped.getInt(pos + 4), h -> new ArrayList<>(1)).add(pos);
+            pos += 4 + n;
+        }
+        if(pos != size) {
+            /* the last record has been interrupted */
+            channel.truncate(pos);
+            size = pos;
+            this.map();
+        }
+    }
+
+    private void map() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /** @return Returns the number of the separations held by the store */
+    public synchronized int size() {
+        int n = 0;
+        for(List<Integer> l : index.values()) n += l.size();
+        return n;
+    }
+
+    /** @return Returns the stored separation of a formula equal to f, null if there is none.
+     * The formula of the result is a copy of f and its time is the one spent on the lookup
+     * @throws IOException if the records appended since the last lookup cannot be mapped */
+    public synchronized SeparationResult get(Formula f) throws IOException {
+        long start = System.nanoTime();
+        List<Integer> offsets = index.get(f.structuralHash());
+        if(offsets == null) return null;
+        if(mapped.capacity() < size) this.map(); // the file is mapped again once it has grown
+        for(int pos : offsets) {
+            ByteBuffer b = mapped.duplicate().position(pos + 8).limit(pos + 4 + mapped.getInt(pos));
+            ArrayList<String> atoms = new ArrayList<>();
+            if(!decode(b, atoms).equalTo(f)) continue;
+            Formula separated = decode(b, atoms);
+            Formula normalized = decode(b, atoms);
+            PureFormulaeMatrix m = new PureFormulaeMatrix();
+            for(int i = readVarint(b); i > 0; i--) {
+                m.addTriple(decode(b, atoms), decode(b, atoms), decode(b, atoms));
+            }
+            return new SeparationResult(f.deepCopy(), separated, normalized, m, System.nanoTime() - start);
+        }
+        return null;
+    }
+
+    /** Appends the separation r to the store, unless the store already holds its formula.
+     * @throws IOException if the record cannot be written */
+    public synchronized void put(SeparationResult r) throws IOException {
+        Formula f = r.getFormula();
+        if(this.get(f) != null) return;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeInt(out, 0); // the length, known at the end
+        writeInt(out, f.structuralHash());
+        HashMap<String, Integer> atoms = new HashMap<>();
+        encode(f, out, atoms);
+        encode(r.getSeparated(), out, atoms);
+        encode(r.getNormalized(), out, atoms);
+        PureFormulaeMatrix m = r.getMatrix();
+        writeVarint(out, m.getDegree());
+        for(int i = 0; i < m.getDegree(); i++) {
+            for(Formula t : m.getTriple(i)) encode(t, out, atoms);
+        }
+        ByteBuffer record = ByteBuffer.wrap(out.toByteArray());
+        record.putInt(0, record.capacity() - 4);
+        if((long) size + record.capacity() > Integer.MAX_VALUE) return;
+        FileLock lock = channel.lock();
+        try {
+            /* another process may have appended its records in the meanwhile */
+            int pos = (int) channel.size();
+            while(record.hasRemaining()) channel.write(record, pos + record.position());
+            index.computeIfAbsent(f.structuralHash(), h -> new ArrayList<>(1)).add(pos);
+            size = pos + record.capacity();
+        } finally {
+            lock.release();
+        }
+    }
+
+    public synchronized void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+
+    /** Writes the formula f in post order, the atoms already written are referred by their number in atoms. */
+    private static void encode(Formula f, ByteArrayOutputStream out, HashMap<String, Integer> atoms) {
+        writeVarint(out, f.size());
+        FormulaTraversal.postOrder(f, n -> {
+            if(n instanceof AtomicFormula af) {
+                Integer i = atoms.get(af.getImage());
+                if(i != null) {
+                    out.write(ATOM_REF);
+                    writeVarint(out, i);
+                    return;
+                }
+                atoms.put(af.getImage(), atoms.size());
+                byte[] img = af.getImage().getBytes(StandardCharsets.UTF_8);
+                out.write(ATOM);
+                writeVarint(out, img.length);
+                out.write(img, 0, img.length);
+            }
+            else if(n instanceof CombinationFormula cf) {
+                out.write(COMBINATION + cf.getOperator().ordinal());
+                writeVarint(out, cf.getArity());
+            }
+            else if(n instanceof UnaryFormula || n instanceof BinaryFormula) {
+                out.write(OPERATOR + ((OperatorFormula) n).getOperator().ordinal());
+            }
+            else throw new IllegalArgumentException(
+                    String.format("The formula %s cannot be stored", n.getClass().getSimpleName())
+            );
+        });
+    }
+
+    /** @return Returns the formula written in b at its position, which is moved after it.
+     * The atoms are numbered from the first formula of the record, read with the same list atoms */
+    private static Formula decode(ByteBuffer b, ArrayList<String> atoms) {
+        ArrayDeque<Formula> stk = new ArrayDeque<>();
+        for(int n = readVarint(b); n > 0; n--) {
+            int code = b.get() & 0xff;
+            if(code == ATOM || code == ATOM_REF) {
+                String img = code == ATOM ? readString(b) : atoms.get(readVarint(b));
+                if(code == ATOM) atoms.add(img);
+                stk.push(new AtomicFormula(img));
+            }
+            else if(code >= COMBINATION) {
+                Formula[] operands = new Formula[readVarint(b)];
+                for(int i = operands.length - 1; i >= 0; i--) operands[i] = stk.pop();
+                stk.push(new CombinationFormula(Operator.values()[code - COMBINATION], List.of(operands)));
+            }
+            else {
+                Operator op = Operator.values()[code - OPERATOR];
+                if(op.isUnary()) stk.push(new UnaryFormula(op, stk.pop()));
+                else {
+                    Formula r = stk.pop();
+                    stk.push(new BinaryFormula(op, stk.pop(), r));
+                }
+            }
+        }
+        return stk.pop();
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int v) {
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int v) {
+        while((v & ~0x7f) != 0) {
+            out.write((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        out.write(v);
+    }
+
+    private static int readVarint(ByteBuffer b) {
+        int v = 0;
+        for(int shift = 0; ; shift += 7) {
+            int c = b.get();
+            v |= (c & 0x7f) << shift;
+            if((c & 0x80) == 0) return v;
+        }
+    }
+
+    private static String readString(ByteBuffer b) {
+        byte[] img = new byte[readVarint(b)];
+        b.get(img);
+        return new String(img, StandardCharsets.UTF_8);
+    }
+
+}
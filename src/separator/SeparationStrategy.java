@@ -0,0 +1,29 @@
+package separator;
+
+import formula.BinaryFormula;
+import separator.eliminator.EliminationCost;
+import java.util.List;
+
+/** The SeparationStrategy interface lets the separator be driven by the order in which the xs are separated
+ * and by the production followed at each elimination.
+ * The separator keeps the xs to separate in a stack: when the xs of a formula are found, the formula
+ * being the input or a production, they are passed in the order of the stack, from the top one,
+ * and they may be reordered.
+ * Any production of an elimination is a separation of its x, although following the productions
+ * of a degree greater than the minimum one makes the rewritings grow much larger, and in practice
+ * it exhausts the memory on the formulae with nested junctions.
+ * @see BuiltinStrategy
+ * @see EliminationCost
+ * @see FormulaSeparator#setStrategy(SeparationStrategy) */
+public interface SeparationStrategy {
+
+    /** Reorders in place the xs of a formula, the first one being separated first.
+     * The default order, from the bottom of the breadth first search of the formula, is kept by default. */
+    default void order(List<BinaryFormula> xs) {}
+
+    /** Chooses the production to follow among the ones of the eliminations of an x, given their estimated costs.
+     * Only the chosen production is built.
+     * @return Returns the position of the chosen production */
+    int choose(EliminationCost[] costs);
+
+}
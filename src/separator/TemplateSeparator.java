@@ -0,0 +1,137 @@
+package separator;
+
+import formula.AtomicFormula;
+import formula.Formula;
+import formula.FormulaTraversal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/** The TemplateSeparator class separates the formulae as instances of templates differing only in their atoms.
+ * The template of a formula is obtained by renaming its atoms, except true and false, to the placeholders
+ * p0, p1, ... in the order of their first occurrence in pre order. The template is separated once by
+ * LtlpSeparator, and the result of each formula with the same template is obtained by substituting
+ * the placeholders of the result of the template with the atoms of the formula.
+ * Since the renaming is a bijection between the atoms, the substitution gives a separation of the formula
+ * equivalent to the one of LtlpSeparator, though not always the same formula: the templates are matched
+ * by equalTo, regardless of the order of the operands of the commutative operators, hence a formula may get
+ * the result of a previous one whose operands are in another order. E.g. after !b & !c & (!b & q)Sa,
+ * the formula !b & !c & (q & !b)Sa is separated into !b & !c & ((!b & q) S a)
+ * rather than into !b & !c & ((q & !b) S a) as by LtlpSeparator.
+ * The templates are kept up to the given number, the least recently used are evicted first,
+ * and the separator is safe to be shared between threads.
+ * @see LtlpSeparator */
+public final class TemplateSeparator {
+
+    private static final String PLACEHOLDER = "p";
+
+    /** A template used as a key: its hash is the structural one, its equality is equalTo */
+    private static final class Key {
+
+        private final Formula template;
+        private final int hash;
+
+        private Key(Formula template) {
+            this.template = template;
+            this.hash = template.structuralHash();
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof Key k && hash == k.hash && template.equalTo(k.template);
+        }
+
+        public int hashCode() { return hash; }
+
+    }
+
+    private final int capacity;
+
+    /** The settings by which the templates are separated */
+    private final SeparationSettings settings;
+
+    /** The results of the templates in access order, from the least recently used one */
+    private final LinkedHashMap<Key, SeparationResult> templates;
+
+    private long hits;
+    private long misses;
+
+    /** Initializes a newly created TemplateSeparator keeping at most capacity templates. */
+    public TemplateSeparator(int capacity) { this(capacity, SeparationSettings.DEFAULT); }
+
+    /** Initializes a newly created TemplateSeparator keeping at most capacity templates,
+     * which are separated by the given settings. */
+    public TemplateSeparator(int capacity, SeparationSettings settings) {
+        if(capacity < 1) throw new IllegalArgumentException(
+                String.format("The capacity must be positive but it is %d", capacity)
+        );
+        this.capacity = capacity;
+        this.settings = Objects.requireNonNull(settings);
+        this.templates = new LinkedHashMap<>(16, 0.75f, true) {
+            protected boolean removeEldestEntry(Map.Entry<Key, SeparationResult> eldest) {
+                return size() > TemplateSeparator.this.capacity;
+            }
+        };
+    }
+
+    /** Separates the formula f, which is not modified, as an instance of its template.
+     * @return Returns the result of the separation */
+    public SeparationResult separate(Formula f) throws InterruptedException {
+        long start = System.nanoTime();
+        LinkedHashMap<String, String> renaming = abstraction(f);
+        Formula template = f.renameAtoms(renaming);
+        Key k = new Key(template);
+        SeparationResult r;
+        synchronized (this) {
+            r = templates.get(k);
+            if(r != null) hits++;
+            else misses++;
+        }
+        if(r == null) {
+            r = LtlpSeparator.separate(template, SeparationCache.getDefault(), settings);
+            synchronized (this) {
+                templates.put(k, r);
+            }
+        }
+        HashMap<String, String> substitution = new HashMap<>();
+        renaming.forEach((atom, p) -> substitution.put(p, atom));
+        PureFormulaeMatrix m = new PureFormulaeMatrix();
+        for(int i = 0; i < r.getDegree(); i++) {
+            Formula[] t = r.getMatrix().getTriple(i);
+            m.addTriple(t[0].renameAtoms(substitution), t[1].renameAtoms(substitution), t[2].renameAtoms(substitution));
+        }
+        return new SeparationResult(
+                f.deepCopy(),
+                r.getSeparated().renameAtoms(substitution),
+                r.getNormalized().renameAtoms(substitution),
+                m,
+                System.nanoTime() - start
+        );
+    }
+
+    /** @return Returns the number of the formulae whose template had already been separated */
+    public synchronized long getHits() { return hits; }
+
+    /** @return Returns the number of the formulae whose template has been separated */
+    public synchronized long getMisses() { return misses; }
+
+    /** @return Returns the number of the templates kept */
+    public synchronized int size() { return templates.size(); }
+
+    public synchronized String toString() {
+        return String.format("templates: %d kept, %d hits, %d misses", templates.size(), hits, misses);
+    }
+
+    /** @return Returns the renaming of the atoms of f, except true and false, to the placeholders */
+    private static LinkedHashMap<String, String> abstraction(Formula f) {
+        LinkedHashMap<String, String> renaming = new LinkedHashMap<>();
+        FormulaTraversal.preOrder(f, n -> {
+            if(n instanceof AtomicFormula af && !af.isTruthValue() && !renaming.containsKey(af.getImage())) {
+                renaming.put(af.getImage(), PLACEHOLDER + renaming.size());
+            }
+            return true;
+        });
+        return renaming;
+    }
+
+}
@@ -0,0 +1,184 @@
+package separator.eliminator;
+
+import formula.Formula;
+import formula.Operator;
+import java.util.List;
+import static formula.Operator.*;
+import static separator.eliminator.EliminationCost.*;
+
+/** The CostModel class predicts the cost of the production of each elimination from the costs of its
+ * subformulae a, A, B and q, without building it: each estimate follows the shape of the formula
+ * built by the rule of EliminationRules with the same number, node by node, including the conversion
+ * of the O, F, H and G operators of the eliminations 4 and 8.
+ * Since the path metrics, the size and the operator counts of a formula only depend on the ones of its operands,
+ * the estimates are exact.
+ * @see EliminationRules
+ * @see EliminationCost */
+public abstract class CostModel {
+
+    /** The costs of the subformulae of an elimination and the operator of its x */
+    private static final class Subformulae {
+
+        private final EliminationCost a, A, B, q;
+        private final Operator op;
+        private final Operator mirror;
+
+        private Subformulae(Formula[] fms, Operator op) {
+            this.a = of(fms[0]);
+            this.A = of(fms[1]);
+            this.B = of(fms[2]);
+            this.q = of(fms[3]);
+            this.op = op;
+            this.mirror = op.getMirrorOperator();
+        }
+
+    }
+
+    /** @return Returns the cost of the production of the elimination with the given number
+     * @param fms The subformulas needed for the elimination.
+     * Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q */
+    public static EliminationCost estimate(int number, Formula[] fms, Operator op) {
+        if(number < 1 || number > 8) throw new IllegalArgumentException(
+                String.format("The number of the elimination must be between 1 and 8 but is %d", number)
+        );
+        Subformulae s = new Subformulae(fms, op);
+        return switch (number) {
+            case 1 -> elimination1(s);
+            case 2 -> elimination2(s);
+            case 3 -> elimination3(s);
+            case 4 -> elimination4(s);
+            case 5 -> elimination5(s);
+            case 6 -> elimination6(s);
+            case 7 -> elimination7(s);
+            default -> elimination8(s);
+        };
+    }
+
+    /** S(a,q) & S(a,B) & B & U(A,B) | A & S(a, B & q) | S(A & q & S(a,B) & S(a,q), q) */
+    private static EliminationCost elimination1(Subformulae s) {
+        return or(
+                and(pattern1(s), pattern2(s), s.B, pattern3(s)),
+                and(s.A, pattern14(s)),
+                binary(s.op, and(s.A, s.q, pattern2(s), pattern1(s)), s.q)
+        );
+    }
+
+    /** S(a, false) | (A | (B & U(A,B))) & S(a, !a & !c) | !(A | (B & U(A,B))) & S(a, !a & !c) & S(!q & !a, !a & !A) */
+    private static EliminationCost elimination2(Subformulae s) {
+        return or(
+                binary(s.op, s.a, atom()),
+                and(pattern5(s), pattern6(s)),
+                and(not(pattern5(s)), pattern6(s), pattern7(s))
+        );
+    }
+
+    /** S(a, q & !A) & !A & !U(A,B) | !A & !B & S(a, !A & q) | S(!A & !B & q & S(a, !A & q), q) */
+    private static EliminationCost elimination3(Subformulae s) {
+        return or(
+                and(pattern8(s), not(s.A), not(pattern3(s))),
+                and(pattern9(s), pattern8(s)),
+                binary(s.op, and(pattern9(s), s.q, pattern8(s)), s.q)
+        );
+    }
+
+    /** !S(!q & !a & U(A,B), !a) & S(a, true) */
+    private static EliminationCost elimination4(Subformulae s) {
+        return and(
+                not(binary(s.op, and(pattern4(s), pattern3(s)), not(s.a))),
+                binary(s.op, s.a, atom())
+        );
+    }
+
+    /** S(a,B) & d | S(A & S(a,B), !b0) & d | S(A & S(a,B), !b0) & !d & !S(!q, !A) */
+    private static EliminationCost elimination5(Subformulae s) {
+        return or(
+                and(pattern2(s), pattern5(s)),
+                and(pattern10(s), pattern5(s)),
+                and(pattern10(s), not(pattern5(s)), not(pattern11(s)))
+        );
+    }
+
+    /** !A & !B & S(a, !A & q) | S(!A & !B & S(a, !A & q) & (q | U(A,B)), q | U(A,B)) | S(a, q & !A) & !A & !U(A,B) */
+    private static EliminationCost elimination6(Subformulae s) {
+        return or(
+                and(pattern9(s), pattern8(s)),
+                binary(s.op, and(and(pattern9(s), pattern8(s)), pattern12(s)), pattern12(s)),
+                and(and(pattern8(s), not(s.A)), not(pattern3(s)))
+        );
+    }
+
+    /** S(A & (q | !U(A,B)) & S(a, B & q), q | !U(A,B)) | S(a, B & q) & A | S(a, B & q) & B & U(A,B) */
+    private static EliminationCost elimination7(Subformulae s) {
+        return or(
+                binary(s.op, and(s.A, pattern13(s), pattern14(s)), pattern13(s)),
+                and(pattern14(s), s.A),
+                and(pattern14(s), s.B, pattern3(s))
+        );
+    }
+
+    /** !(!S(!(!a | U(A,B)), true) | S(!q & U(A,B) & !a, !a | U(A,B)) | S(!q & U(A,B), !a | U(A,B))) */
+    private static EliminationCost elimination8(Subformulae s) {
+        EliminationCost u = and(not(s.q), pattern3(s));
+        return not(or(
+                not(binary(s.op, not(pattern15(s)), atom())),
+                binary(s.op, and(u, not(s.a)), pattern15(s)),
+                binary(s.op, u, pattern15(s))
+        ));
+    }
+
+    /** S(a,q) */
+    private static EliminationCost pattern1(Subformulae s) { return binary(s.op, s.a, s.q); }
+
+    /** S(a,B) */
+    private static EliminationCost pattern2(Subformulae s) { return binary(s.op, s.a, s.B); }
+
+    /** U(A,B) */
+    private static EliminationCost pattern3(Subformulae s) { return binary(s.mirror, s.A, s.B); }
+
+    /** !q & !a */
+    private static EliminationCost pattern4(Subformulae s) { return and(not(s.q), not(s.a)); }
+
+    /** A | (B & U(A,B)) */
+    private static EliminationCost pattern5(Subformulae s) { return or(s.A, and(s.B, pattern3(s))); }
+
+    /** S(a, !a & !c), where c = !A & !B & S(!q & !a, !a & !A) */
+    private static EliminationCost pattern6(Subformulae s) {
+        return binary(s.op, s.a, and(not(s.a), not(and(pattern9(s), pattern7(s)))));
+    }
+
+    /** S(!q & !a, !a & !A) */
+    private static EliminationCost pattern7(Subformulae s) {
+        return binary(s.op, pattern4(s), and(not(s.a), not(s.A)));
+    }
+
+    /** S(a, q & !A) */
+    private static EliminationCost pattern8(Subformulae s) { return binary(s.op, s.a, and(s.q, not(s.A))); }
+
+    /** !A & !B */
+    private static EliminationCost pattern9(Subformulae s) { return and(not(s.A), not(s.B)); }
+
+    /** S(A & S(a,B), !b0), where b0 = !A & !B & S(!q, !A) */
+    private static EliminationCost pattern10(Subformulae s) {
+        return binary(s.op, and(s.A, pattern2(s)), not(and(pattern9(s), pattern11(s))));
+    }
+
+    /** S(!q, !A) */
+    private static EliminationCost pattern11(Subformulae s) { return binary(s.op, not(s.q), not(s.A)); }
+
+    /** q | U(A,B) */
+    private static EliminationCost pattern12(Subformulae s) { return or(s.q, pattern3(s)); }
+
+    /** q | !U(A,B) */
+    private static EliminationCost pattern13(Subformulae s) { return or(s.q, not(pattern3(s))); }
+
+    /** S(a, q & B) */
+    private static EliminationCost pattern14(Subformulae s) { return binary(s.op, s.a, and(s.q, s.B)); }
+
+    /** !a | U(A,B) */
+    private static EliminationCost pattern15(Subformulae s) { return or(not(s.a), pattern3(s)); }
+
+    private static EliminationCost and(EliminationCost... cs) { return combination(AND, List.of(cs)); }
+
+    private static EliminationCost or(EliminationCost... cs) { return combination(OR, List.of(cs)); }
+
+}
@@ -0,0 +1,100 @@
+package separator.eliminator;
+
+import formula.BinaryFormula;
+import formula.Formula;
+import formula.FormulaTraversal;
+import formula.Operator;
+import formula.PathMetrics;
+import java.util.List;
+import static formula.Operator.*;
+
+/** The EliminationCost class describes a formula by the measures which drive the choice of an elimination,
+ * without the formula itself: its path metrics, giving its degree and its k values, its number of nodes,
+ * its numbers of past and future operators and the work left to separate it, that is the total size
+ * of its UNTIL and SINCE subformulae which need to be separated.
+ * All the measures of a formula are computed from the ones of its operands, hence the cost of a production
+ * is composed from the costs of the subformulae of its elimination.
+ * @see CostModel */
+public final class EliminationCost {
+
+    private static final EliminationCost ATOM = new EliminationCost(PathMetrics.atomic(), 1, 0, 0, 0);
+
+    private final PathMetrics metrics;
+    private final int size;
+    private final int past;
+    private final int future;
+    private final int work;
+
+    private EliminationCost(PathMetrics metrics, int size, int past, int future, int work) {
+        this.metrics = metrics;
+        this.size = size;
+        this.past = past;
+        this.future = future;
+        this.work = work;
+    }
+
+    /** @return Returns the cost of the formula f */
+    public static EliminationCost of(Formula f) {
+        int[] w = FormulaTraversal.reduce(f, (n, operands) -> {
+            int size = 1, work = 0;
+            for(int[] o : operands) {
+                size += o[0];
+                work += o[1];
+            }
+            if(n instanceof BinaryFormula bn && needSeparation(bn.getOperator(), n.countPastOperators(), n.countFutureOperators())) {
+                work += size;
+            }
+            return new int[] {size, work};
+        });
+        return new EliminationCost(f.getPathMetrics(), w[0], f.countPastOperators(), f.countFutureOperators(), w[1]);
+    }
+
+    /** @return Returns the cost of an atom */
+    static EliminationCost atom() { return ATOM; }
+
+    /** @return Returns the cost of the negation of a formula of cost c */
+    static EliminationCost not(EliminationCost c) {
+        return new EliminationCost(PathMetrics.unary(c.metrics), c.size + 1, c.past, c.future, c.work);
+    }
+
+    /** @return Returns the cost of a binary formula with operator op whose operands have costs l and r */
+    static EliminationCost binary(Operator op, EliminationCost l, EliminationCost r) {
+        int past = l.past + r.past + (op.isPast() ? 1 : 0);
+        int future = l.future + r.future + (op.isFuture() ? 1 : 0);
+        int size = l.size + r.size + 1;
+        int work = l.work + r.work + (needSeparation(op, past, future) ? size : 0);
+        return new EliminationCost(PathMetrics.binary(op, l.metrics, r.metrics), size, past, future, work);
+    }
+
+    /** @return Returns the cost of the combination with operator op of formulae of costs cs
+     * @see BinaryFormula#newCombination(Operator, java.util.Collection) */
+    static EliminationCost combination(Operator op, List<EliminationCost> cs) {
+        EliminationCost c = cs.get(0);
+        for(int i = 1; i < cs.size(); i++) c = binary(op, c, cs.get(i));
+        return c;
+    }
+
+    /** @return Returns true if, and only if, an UNTIL or a SINCE node with the given numbers of past and future
+     * operators is not separated */
+    private static boolean needSeparation(Operator op, int past, int future) {
+        return (op == UNTIL && past > 0) || (op == SINCE && future > 0);
+    }
+
+    /** @return Returns the degree of the formula */
+    public int degree() { return metrics.degree(); }
+
+    /** @return Returns the maximum k value of the top junctions of the paths of the formula whose m value is m
+     * @see PathMetrics#maxKofDegreeM(int) */
+    public int maxKofDegreeM(int m) { return metrics.maxKofDegreeM(m); }
+
+    /** @return Returns the number of nodes of the formula */
+    public int size() { return size; }
+
+    /** @return Returns the total size of the UNTIL and SINCE subformulae of the formula which need to be separated */
+    public int work() { return work; }
+
+    public String toString() {
+        return String.format("degree %d, size %d, work %d", this.degree(), size, work);
+    }
+
+}
@@ -11,8 +11,6 @@ import static separator.eliminator.SubformulaePatterns.*;
 
 public abstract class EliminationRules {
 
-    private static final FormulaConverter cnv = new FormulaConverter();
-
     /** ELIMINATION 1
      *  S(a & U(A,B), q) =>* E = E1 | E2 | E3, where:
      *  E1 = S(a,q) & S(a,B) & B & U(A,B)
@@ -22,7 +20,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination1(Formula[] fms, Operator op) {
-        System.out.println("Elimination1");
+        RuleTrace.rule("Elimination1");
         return (BinaryFormula) BinaryFormula.newDisjunction(Arrays.asList(
                         e1_E1(fms, op), // S(a,q) & S(a,B) & B & U(A,B)
                         e1_E2(fms, op), // A & S(a, B & q)
@@ -81,7 +79,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination2(Formula[] fms, Operator op) {
-        System.out.println("Elimination2");
+        RuleTrace.rule("Elimination2");
         return (BinaryFormula) newDisjunction(Arrays.asList(
                         e2_E1(fms, op), // S(a, false)
                         e2_E2(fms, op), // (A | (B & U(A,B))) & S(a, !a & !c)
@@ -134,7 +132,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination3(Formula[] fms, Operator op) {
-        System.out.println("Elimination3");
+        RuleTrace.rule("Elimination3");
         return (BinaryFormula) newDisjunction(Arrays.asList(
                         e3_E1(fms, op), // S(a, q & !A) & !A & !U(A,B)
                         e3_E2(fms, op), // !A & !B & S(a, !A & q)
@@ -187,7 +185,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination4(Formula[] fms, Operator op) {
-        System.out.println("Elimination4");
+        RuleTrace.rule("Elimination4");
         Operator uOp = ONCE;
         if(op.equals(UNTIL))  uOp = FIN;
         // !S(!q & U(A,B) & !a, !a) & Oa
@@ -200,7 +198,7 @@ public abstract class EliminationRules {
                         fms[0].deepCopy().negate() // !a
                 ).negate(),
                 // Oa
-                cnv.convert(
+                new FormulaConverter().convert(
                         new UnaryFormula(
                                 uOp, // O
                                 fms[0].deepCopy() // a
@@ -222,7 +220,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination5(Formula[] fms, Operator op){
-        System.out.println("Elimination5");
+        RuleTrace.rule("Elimination5");
         return (BinaryFormula) newDisjunction(Arrays.asList(
                         e5_E1(fms, op), // S(a,B) & (A | (B & U(A,B)))
                         e5_E2(fms, op), // S(A & S(a,B), !b0) & d
@@ -273,7 +271,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination6(Formula[] fms, Operator op) {
-        System.out.println("Elimination6");
+        RuleTrace.rule("Elimination6");
         return (BinaryFormula) newDisjunction(Arrays.asList(
                         e6_E1(fms, op), // S(a, !A & q) & !A & !B
                         e6_E2(fms, op), // S(!A & !B & (q | U(A,B)) & S(a, !A & q), q | U(A,B))
@@ -334,7 +332,7 @@ public abstract class EliminationRules {
      *  Where: fms[0] == a, fms[1] == A, fms[2] == B, fms[3] == q
      */
     public static BinaryFormula elimination7(Formula[] fms, Operator op) {
-        System.out.println("Elimination7");
+        RuleTrace.rule("Elimination7");
         return (BinaryFormula) newDisjunction(Arrays.asList(
                         e7_E1(fms, op), // S(A & (q | !U(A,B)) & S(a, B & q), q | !(AUB))
                         e7_E2(fms, op), // S(a, B & q) & A
@@ -390,9 +388,9 @@ public abstract class EliminationRules {
      */
 
     public static OperatorFormula elimination8(Formula[] fms, Operator op) {
-        System.out.println("Elimination8");
+        RuleTrace.rule("Elimination8");
         return newDisjunction(Arrays.asList(
-                        cnv.convert(e8_E1(fms, op)), // H(!a | U(A,B))
+                        new FormulaConverter().convert(e8_E1(fms, op)), // H(!a | U(A,B))
                         e8_E2(fms, op), // S(!q & U(A,B) & !a, !a | U(A,B))
                         e8_E3(fms, op) // S(!q & U(A,B), !a | U(A,B))
                 )
@@ -12,10 +12,62 @@ import static separator.eliminator.EliminationRules.*;
 
 public class FormulaEliminator {
 
+    /** An elimination ready to be applied: its number, the operator of its x and its subformulae.
+     * The cost of its production can be estimated without applying it. */
+    public static final class Elimination {
+
+        private final BinaryFormula x;
+        private final int number;
+        private final Formula[] subformulae;
+
+        private Elimination(BinaryFormula x, int number, Formula[] subformulae) {
+            this.x = x;
+            this.number = number;
+            this.subformulae = subformulae;
+        }
+
+        /** @return Returns the formula produced by the elimination,
+         * the x node itself if no elimination can be applied */
+        public OperatorFormula apply() {
+            Operator op = x.getOperator();
+            return switch (number) {
+                case 1 -> elimination1(subformulae, op);
+                case 2 -> elimination2(subformulae, op);
+                case 3 -> elimination3(subformulae, op);
+                case 4 -> elimination4(subformulae, op);
+                case 5 -> elimination5(subformulae, op);
+                case 6 -> elimination6(subformulae, op);
+                case 7 -> elimination7(subformulae, op);
+                case 8 -> elimination8(subformulae, op);
+                default -> x;
+            };
+        }
+
+        /** @return Returns the cost of the formula produced by the elimination, which is not built
+         * @see CostModel */
+        public EliminationCost estimate() {
+            return number == 0 ? EliminationCost.of(x) : CostModel.estimate(number, subformulae, x.getOperator());
+        }
+
+        /** @return Returns the number of the elimination, 0 if no elimination can be applied */
+        public int getNumber() { return number; }
+
+    }
+
     /** Applies the correct elimination for the binary formula got in input.
      *  @return returns the formula after being applied the corresponding elimination,
      *  if no elimination can be applied returns the same input formula */
     public static OperatorFormula applyElimination(Junction lj, Junction rj) {
+        return prepareElimination(lj, rj).apply();
+    }
+
+    /** Prepares the elimination for the junctions got in input, arranging their x node as
+     * applyElimination does. The subformulae of the elimination are shared with the formula:
+     * the arrangements of x for the other eliminations only replace the operands of x, hence they
+     * are not modified and the elimination can still be applied after the other ones have been prepared.
+     * @return Returns the elimination
+     * @see #applyElimination(Junction, Junction) */
+    public static Elimination prepareElimination(Junction lj, Junction rj) {
 
         BinaryFormula x = null;
         if(lj != null) x = (BinaryFormula) lj.getX();
@@ -44,18 +96,7 @@ public class FormulaEliminator {
 
         int nc = eliminationNumber(lj, rj);
         Formula[] sfms = getSubformulas(lj, rj, nc);
-        Operator op = x.getOperator();
-        return switch (nc) {
-            case 1 -> elimination1(sfms,op);
-            case 2 -> elimination2(sfms,op);
-            case 3 -> elimination3(sfms,op);
-            case 4 -> elimination4(sfms,op);
-            case 5 -> elimination5(sfms,op);
-            case 6 -> elimination6(sfms,op);
-            case 7 -> elimination7(sfms,op);
-            case 8 -> elimination8(sfms,op);
-            default -> x;
-        };
+        return new Elimination(x, nc, sfms);
     }
 
     /** @return Returns the number of the elimination to apply.
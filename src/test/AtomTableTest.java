@@ -0,0 +1,52 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.concurrent.*;
+
+import static formula.AtomConstant.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomTableTest {
+
+    @Test
+    @DisplayName("Interning")
+    void internTest() {
+        int a = AtomTable.intern("atom_table_a");
+        assertEquals(a, AtomTable.intern("atom_table_a"));
+        assertNotEquals(a, AtomTable.intern("atom_table_b"));
+        assertEquals("atom_table_a", AtomTable.name(a));
+        assertEquals(AtomTable.TRUE_ID, AtomTable.intern("true"));
+        assertEquals(AtomTable.FALSE_ID, AtomTable.id(FALSE));
+        AtomicFormula f = new AtomicFormula("atom_table_a");
+        assertEquals(a, f.getId());
+        assertSame(AtomTable.name(a), f.deepCopy().getImage());
+        assertTrue(f.equalTo(new AtomicFormula(a)));
+        assertFalse(f.equalTo(new AtomicFormula("atom_table_b")));
+        assertTrue(new AtomicFormula("true").isTrue());
+        assertTrue(new AtomicFormula(FALSE).isTruthValue(FALSE));
+        f.setImage("atom_table_b");
+        assertEquals(AtomTable.intern("atom_table_b"), f.getId());
+    }
+
+    @Test
+    @DisplayName("Concurrent interning")
+    void concurrentTest() throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        ArrayList<Future<int[]>> results = new ArrayList<>();
+        for(int t = 0; t < 4; t++) {
+            results.add(pool.submit(() -> {
+                int[] ids = new int[500];
+                for(int i = 0; i < ids.length; i++) ids[i] = AtomTable.intern("concurrent_" + i);
+                return ids;
+            }));
+        }
+        int[] first = results.get(0).get();
+        for(Future<int[]> r : results) assertArrayEquals(first, r.get());
+        for(int i = 0; i < first.length; i++) assertEquals("concurrent_" + i, AtomTable.name(first[i]));
+        pool.shutdown();
+    }
+
+}
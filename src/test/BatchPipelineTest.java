@@ -0,0 +1,58 @@
+package test;
+
+import main.BatchPipeline;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchPipelineTest {
+
+    private static final String INPUT = "a U b\n(a&(bUc))Sq\naS(q|(bUc))\nbad &&\nG(b -> Ya)\n(a&(bSc))Uq\n";
+
+    @Test
+    @DisplayName("Results in input order")
+    void orderTest() throws IOException, InterruptedException {
+        String[] sequential = run(1);
+        String[] parallel = run(3);
+        assertEquals(6, sequential.length);
+        assertArrayEquals(sequential, parallel);
+        for(int i = 0; i < sequential.length; i++) {
+            assertTrue(sequential[i].startsWith("{\"number\":" + (i + 1) + ",\"line\":" + (i + 1) + ","));
+        }
+        assertTrue(sequential[0].contains("\"separated\":\"a U b\""));
+        assertTrue(sequential[3].contains("\"error\":\"Encountered"));
+        assertFalse(sequential[3].contains("\"matrix\""));
+        assertTrue(sequential[4].contains("\"degree\":"));
+    }
+
+    @Test
+    @DisplayName("Summary")
+    void summaryTest() throws IOException, InterruptedException {
+        BatchPipeline.Summary s = new BatchPipeline(2).run(
+                new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)), new StringWriter()
+        );
+        assertEquals(6, s.getFormulae());
+        assertEquals(1, s.getFailed());
+        assertTrue(s.getThroughput() > 0);
+        assertThrows(IllegalArgumentException.class, () -> new BatchPipeline(0));
+        /* a formula left unseparated is a failure */
+        s = new BatchPipeline(2).run(
+                new ByteArrayInputStream((INPUT + "(aUb)S(bUc)\n").getBytes(StandardCharsets.US_ASCII)), new StringWriter()
+        );
+        assertEquals(7, s.getFormulae());
+        assertEquals(2, s.getFailed());
+    }
+
+    /** @return Returns the lines written by a pipeline with the given threads, without their times */
+    private static String[] run(int threads) throws IOException, InterruptedException {
+        StringWriter out = new StringWriter();
+        new BatchPipeline(threads).run(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)), out);
+        return out.toString().replaceAll(",\"ms\":[0-9.]*", "").split("\n");
+    }
+
+}
@@ -0,0 +1,82 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import main.BatchPipeline;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.BuiltinStrategy;
+import separator.FormulaSeparator;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import separator.SeparationSettings;
+import separator.TemplateSeparator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeamSearchTest {
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Beam search results")
+    void beamSearchTest() throws ParseException, ExecutionException, InterruptedException {
+        for(String s : new String[] {"(a&(bUc))Sq", "aS(q|!(bUc))", "(a&!(bUc))S(q|!(bUc))", "(a&!(bSc))U(q|!(bSc))"}) {
+            Formula greedy = separate(s, 1, 0);
+            Formula beam = separate(s, 4, 64);
+            assertTrue(beam.isSeparated(), s);
+            assertTrue(beam.size() <= greedy.size(), s);
+        }
+        /* an alternative production leads to a smaller separation than the greedy one */
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        assertTrue(separate(s, 4, 64).size() < separate(s, 1, 0).size());
+    }
+
+    @Test
+    @DisplayName("Width and budget")
+    void widthAndBudgetTest() throws ParseException, ExecutionException, InterruptedException {
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        Formula greedy = separate(s, 1, 0);
+        /* without forks the beam search follows the greedy choices */
+        assertTrue(separate(s, 4, 0).equalTo(greedy));
+        assertTrue(separate(s, 1, 64).equalTo(greedy));
+        FormulaSeparator separator = new FormulaSeparator();
+        assertThrows(IllegalArgumentException.class, () -> separator.setBeamSearch(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> separator.setBeamSearch(2, -1));
+        assertEquals(1, separator.getBeamWidth());
+    }
+
+    @Test
+    @DisplayName("Beam search of the library")
+    void settingsTest() throws ParseException, ExecutionException, InterruptedException, IOException {
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        Formula beam = separate(s, 4, 64);
+        SeparationSettings settings = new SeparationSettings(BuiltinStrategy.GREEDY, 4, 64);
+        assertFalse(settings.isCached());
+        assertTrue(beam.equalTo(LtlpSeparator.separate(parser.parse(s), SeparationCache.getDefault(), settings).getSeparated()));
+        /* the batch pipeline and the templates separate by the beam search of the settings */
+        for(TemplateSeparator templates : new TemplateSeparator[] {null, new TemplateSeparator(1, settings)}) {
+            StringWriter out = new StringWriter();
+            new BatchPipeline(2, null, templates, settings)
+                    .run(new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII)), out);
+            assertTrue(out.toString().contains("\"separated\":\"" + beam + "\""));
+        }
+        assertThrows(IllegalArgumentException.class, () -> new SeparationSettings(BuiltinStrategy.GREEDY, 0, 1));
+    }
+
+    /** @return Returns the separation of the formula s by a beam search of the given width and budget */
+    private Formula separate(String s, int width, int budget)
+            throws ParseException, ExecutionException, InterruptedException {
+        FormulaSeparator separator = new FormulaSeparator((SeparationCache) null);
+        separator.setBeamSearch(width, budget);
+        return separator.separate(new FormulaConverter().convert(parser.parse(s)));
+    }
+
+}
@@ -0,0 +1,77 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import separator.FormulaNormalizer;
+import java.io.ByteArrayInputStream;
+
+import static formula.Formula.parseTreeToFormula;
+import static formula.Operator.*;
+import static formula.TimeConstant.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CombinationFormulaTest {
+
+    private final Parser parser = new Parser(System.in);
+
+    @Test
+    @DisplayName("Flattening")
+    void flattenTest() throws ParseException {
+        Formula f = parseFormula("((a & Yb) & (c | d)) & Fe");
+        String s = f.toString();
+        Formula cf = CombinationFormula.flatten(f);
+        assertTrue(cf instanceof CombinationFormula);
+        CombinationFormula c = (CombinationFormula) cf;
+        assertEquals(4, c.getArity());
+        assertEquals(s, c.toString());
+        assertEquals(MIXED, c.getTime());
+        assertEquals(1, c.countPastOperators());
+        assertEquals(1, c.countFutureOperators());
+        assertTrue(c.isSeparated());
+        assertTrue(c.equalTo(parseFormula("Fe & (a & ((d | c) & Yb))")));
+        assertTrue(parseFormula("Fe & (a & ((d | c) & Yb))").equalTo(c));
+        assertEquals(parseFormula("Fe & (a & ((d | c) & Yb))").structuralHash(), c.structuralHash());
+        Formula b = CombinationFormula.expand(c.deepCopy());
+        assertTrue(b instanceof BinaryFormula);
+        assertEquals(s, b.toString());
+    }
+
+    @Test
+    @DisplayName("Operand replacement")
+    void replacementTest() throws ParseException {
+        CombinationFormula c = (CombinationFormula) CombinationFormula.flatten(parseFormula("(a | b) | c"));
+        Formula b = c.getOperand(1);
+        assertSame(c, b.getParent());
+        b.replaceFormula(parseFormula("b S d"));
+        assertEquals(PAST, c.getOperand(1).getTime());
+        assertEquals(1, c.countOperator(SINCE));
+        assertSame(c.getOperand(1), c.searchOperator(SINCE));
+        assertTrue(c.getOperand(1).isChildOf(c));
+        assertEquals("(a | (b S d)) | c", c.toString());
+    }
+
+    @Test
+    @DisplayName("Normalization")
+    void normalizeTest() throws ParseException {
+        FormulaNormalizer normalizer = new FormulaNormalizer();
+        Formula n = normalizer.normalize(parseFormula("(a | Yb | Fc) & (d | e)"));
+        assertTrue(n instanceof BinaryFormula);
+        assertEquals(6, normalizer.getPureFormulaeMatrix(n).getDegree());
+        /* the combinations are expanded before being normalized */
+        Formula m = normalizer.normalize(CombinationFormula.flatten(parseFormula("(a | Yb | Fc) & (d | e)")));
+        assertEquals(n.toString(), m.toString());
+    }
+
+    private Formula parseFormula(String str) throws ParseException {
+        byte[] formulaBytes = str.getBytes();
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
+        parser.ReInit(formulaStream);
+        SimpleNode parseTree = parser.Input();
+        return parseTreeToFormula(parseTree);
+    }
+
+}
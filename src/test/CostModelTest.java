@@ -0,0 +1,75 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.BinaryFormula;
+import formula.Junction;
+import formula.OperatorFormula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.eliminator.CostModel;
+import separator.eliminator.EliminationCost;
+import separator.eliminator.FormulaEliminator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+
+import static formula.Junction.junctionsList;
+import static formula.Operator.SINCE;
+import static org.junit.jupiter.api.Assertions.*;
+import static separator.eliminator.FormulaEliminator.prepareElimination;
+
+class CostModelTest {
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Estimated productions")
+    void estimatedProductionsTest() throws ParseException {
+        String[] formulae = {
+                "qS(a&(bUc))", "(q|(bUc))Sa", "qS(a&!(bUc))", "(q|!(bUc))Sa",
+                "(q|(bUc))S(a&(bUc))", "(q|(bUc))S(a&!(bUc))", "(q|!(bUc))S(a&(bUc))", "(q|!(bUc))S(a&!(bUc))",
+                "qU(a&(bSc))", "(q|!(bSc))Ua", "(q|!(bSc))U(a&!(bSc))", "(a&(bUc))S(q|!(bUc))",
+                "((a|Fd)&(bS(c&Xe)))U(q|Yf)", "(q|Y(bSc))U((a|Fd)&(bS(c&Xe)))"
+        };
+        HashSet<Integer> numbers = new HashSet<>();
+        for(String s : formulae) {
+            BinaryFormula x = (BinaryFormula) new FormulaConverter().convert(parser.parse(s));
+            ArrayList<OperatorFormula> lys = x.getLoperand().searchOperators(x.getOperator().getMirrorOperator());
+            ArrayList<OperatorFormula> rys = x.getRoperand().searchOperators(x.getOperator().getMirrorOperator());
+            ArrayList<Junction> ljs = junctionsList(x, lys);
+            ArrayList<Junction> rjs = junctionsList(x, rys);
+            ArrayList<FormulaEliminator.Elimination> es = new ArrayList<>();
+            ljs.forEach(lj -> rjs.forEach(rj -> es.add(prepareElimination(lj, rj))));
+            ljs.forEach(lj -> es.add(prepareElimination(lj, null)));
+            rjs.forEach(rj -> es.add(prepareElimination(null, rj)));
+            for(FormulaEliminator.Elimination e : es) {
+                numbers.add(e.getNumber());
+                EliminationCost estimated = e.estimate();
+                EliminationCost actual = EliminationCost.of(e.apply());
+                String msg = s + " elimination " + e.getNumber();
+                assertEquals(actual.degree(), estimated.degree(), msg);
+                assertEquals(actual.size(), estimated.size(), msg);
+                assertEquals(actual.work(), estimated.work(), msg);
+                for(int m = 1; m <= actual.degree(); m++) {
+                    int finalM = m;
+                    try {
+                        assertEquals(actual.maxKofDegreeM(m), estimated.maxKofDegreeM(m), msg);
+                    } catch (NoSuchElementException ex) {
+                        assertThrows(NoSuchElementException.class, () -> estimated.maxKofDegreeM(finalM), msg);
+                    }
+                }
+            }
+        }
+        for(int n = 1; n <= 8; n++) assertTrue(numbers.contains(n), "elimination " + n);
+    }
+
+    @Test
+    @DisplayName("Elimination numbers")
+    void eliminationNumbersTest() {
+        assertThrows(IllegalArgumentException.class, () -> CostModel.estimate(0, null, SINCE));
+        assertThrows(IllegalArgumentException.class, () -> CostModel.estimate(9, null, SINCE));
+    }
+
+}
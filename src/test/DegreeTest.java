@@ -2,6 +2,7 @@ package test;
 
 import formula.Formula;
 import formula.Junction;
+import formula.OperatorFormula;
 import formula.Path;
 import org.junit.jupiter.api.Test;
 import parser.ParseException;
@@ -9,7 +10,11 @@ import parser.Parser;
 import parser.SimpleNode;
 import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
 import static formula.Formula.parseTreeToFormula;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static separator.FormulaSeparator.maxKofDegreeM;
 
 class DegreeTest {
@@ -28,6 +33,43 @@ class DegreeTest {
         System.out.println("Max k of productions of getDegree m: "  +  maxKofDegreeM(f, m));
     }
 
+    @Test
+    void pathMetricsTest() throws ParseException {
+        String[] fs = {
+                "xS(((!r|((eUd)S(p))U(zU(yUx)))S(!(qUp)))Uk)",
+                "G(a -> Fb & Oc)",
+                "(a&!(bUc))S(q|!(bUc))",
+                "((aSb)U(cSd)) S ((eUf) & g)",
+                "a & !b",
+                "a"
+        };
+        for(String s : fs) {
+            Formula f = parseFormula(s);
+            ArrayList<Path> paths = f.getPaths();
+            int m = paths.stream().mapToInt(Path::getM).max().orElse(0);
+            assertEquals(m, f.degree());
+            for(int i = 1; i <= m; i++) {
+                int fi = i;
+                List<Path> mPaths = paths.stream().filter(p -> p.getM() == fi).toList();
+                if(mPaths.isEmpty()) {
+                    assertThrows(NoSuchElementException.class, () -> maxKofDegreeM(f, fi));
+                }
+                else {
+                    int k = mPaths.stream().mapToInt(p -> junctionK(p.getTopJunction())).max().getAsInt();
+                    assertEquals(k, maxKofDegreeM(f, i));
+                }
+            }
+        }
+    }
+
+    /** @return Returns the k value of the junction j computed by enumerating the paths of its y node */
+    private int junctionK(Junction j) {
+        OperatorFormula y = (OperatorFormula) j.getY();
+        int k = y.getPaths().stream().mapToInt(p -> p.countOperatorOccurrences(y.getOperator())).max().getAsInt();
+        assertEquals(k, j.getK());
+        return k;
+    }
+
     private Formula parseFormula(String str) throws ParseException {
         byte[] formulaBytes = str.getBytes();
         ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
@@ -0,0 +1,129 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.BinaryFormula;
+import formula.Formula;
+import formula.Junction;
+import formula.OperatorFormula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.BuiltinStrategy;
+import separator.FormulaSeparator;
+import separator.eliminator.FormulaEliminator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static formula.Junction.junctionsList;
+import static org.junit.jupiter.api.Assertions.*;
+import static separator.FormulaSeparator.eliminationChoices;
+import static separator.eliminator.FormulaEliminator.applyElimination;
+import static separator.eliminator.FormulaEliminator.eliminationNumber;
+import static separator.eliminator.FormulaEliminator.prepareElimination;
+
+class EliminationChoicesTest {
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Prepared eliminations")
+    void preparedEliminationsTest() throws ParseException {
+        for(String s : new String[] {"(a&(bUc))S(q|!(bUc))", "(a&!(bSc))U(q|(bSc))", "(a&(bUc))S(q|(bUc))"}) {
+            List<Junction[]> applied = choices(s);
+            ArrayList<String> expected = new ArrayList<>();
+            for(Junction[] js : applied) expected.add(applyElimination(js[0], js[1]).toString());
+
+            /* all the eliminations are prepared before being applied, in the reverse order */
+            List<Junction[]> prepared = choices(s);
+            FormulaEliminator.Elimination[] es = new FormulaEliminator.Elimination[prepared.size()];
+            for(int i = 0; i < es.length; i++) es[i] = prepareElimination(prepared.get(i)[0], prepared.get(i)[1]);
+            String[] productions = new String[es.length];
+            for(int i = es.length - 1; i >= 0; i--) productions[i] = es[i].apply().toString();
+            assertEquals(3, productions.length, s);
+            assertEquals(expected, List.of(productions), s);
+        }
+    }
+
+    @Test
+    @DisplayName("Dominated choices")
+    void dominatedChoicesTest() throws ParseException {
+        String[] formulae = {"(q|(bUc)|(dUe))S(a&(bUc)&(fUg))", "(q|!(bUc)|(dUe)|(fUg))S(a&(fUg)&!(dUe)&(bUc))", "(a&(bUc))S(q|!(bUc))"};
+        int[] sizes = {6, 10, 3};
+        for(int k = 0; k < formulae.length; k++) {
+            String s = formulae[k];
+            BinaryFormula x = (BinaryFormula) new FormulaConverter().convert(parser.parse(s));
+            ArrayList<Junction> ljs = junctionsList(x, x.getLoperand().searchOperators(x.getOperator().getMirrorOperator()));
+            ArrayList<Junction> rjs = junctionsList(x, x.getRoperand().searchOperators(x.getOperator().getMirrorOperator()));
+            ArrayList<Junction[]> expected = new ArrayList<>();
+            ljs.forEach(lj -> rjs.forEach(rj -> expected.add(new Junction[] {lj, rj})));
+            ljs.forEach(lj -> expected.add(new Junction[] {lj, null}));
+            rjs.forEach(rj -> expected.add(new Junction[] {null, rj}));
+            /* the no-op choices produce x itself, only the first one is kept */
+            boolean[] noOp = {false};
+            expected.removeIf(js -> {
+                if(eliminationNumber(js[0], js[1]) != 0) return false;
+                if(noOp[0]) return true;
+                noOp[0] = true;
+                return false;
+            });
+            List<Junction[]> pruned = eliminationChoices(ljs, rjs);
+            assertEquals(sizes[k], pruned.size(), s);
+            assertEquals(expected.size(), pruned.size(), s);
+            for(int i = 0; i < pruned.size(); i++) {
+                assertSame(expected.get(i)[0], pruned.get(i)[0], s);
+                assertSame(expected.get(i)[1], pruned.get(i)[1], s);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("No-op choice")
+    void noOpChoiceTest() throws ParseException, ExecutionException, InterruptedException {
+        /* the no-op choice is the greedy one, which leaves x as it is */
+        assertEquals(11, separate("(aUb)S(bUc)", false, null).size());
+        assertEquals(19, separate("((aSb)U(cSd)) S ((eUf) & g)", false, null).size());
+    }
+
+    @Test
+    @DisplayName("Dominance pruning")
+    void dominancePruningTest() throws ParseException, ExecutionException, InterruptedException {
+        String s = "(q|(bUc)|((dUe)Uf))Sa";
+        ArrayList<Integer> all = new ArrayList<>(), undominated = new ArrayList<>();
+        Formula f = separate(s, false, all);
+        Formula g = separate(s, true, undominated);
+        /* the junction of y (dUe)Uf is dominated by the one of y bUc, which has a smaller k */
+        assertEquals(2, (int) all.get(0));
+        assertEquals(1, (int) undominated.get(0));
+        assertTrue(g.isSeparated());
+        assertTrue(g.equalTo(f));
+    }
+
+    /** @return Returns the greedy separation of the formula s, adding to choices the number of the choices of each x */
+    private Formula separate(String s, boolean pruning, List<Integer> choices)
+            throws ParseException, ExecutionException, InterruptedException {
+        FormulaSeparator separator = new FormulaSeparator();
+        separator.setDominancePruning(pruning);
+        separator.setStrategy(costs -> {
+            if(choices != null) choices.add(costs.length);
+            return BuiltinStrategy.GREEDY.choose(costs);
+        });
+        return separator.separate(new FormulaConverter().convert(parser.parse(s)));
+    }
+
+    /** @return Returns the elimination choices of the formula s, in the order of the separator */
+    private List<Junction[]> choices(String s) throws ParseException {
+        BinaryFormula x = (BinaryFormula) new FormulaConverter().convert(parser.parse(s));
+        ArrayList<OperatorFormula> lys = x.getLoperand().searchOperators(x.getOperator().getMirrorOperator());
+        ArrayList<OperatorFormula> rys = x.getRoperand().searchOperators(x.getOperator().getMirrorOperator());
+        ArrayList<Junction> ljs = junctionsList(x, lys);
+        ArrayList<Junction> rjs = junctionsList(x, rys);
+        ArrayList<Junction[]> choices = new ArrayList<>();
+        ljs.forEach(lj -> rjs.forEach(rj -> choices.add(new Junction[] {lj, rj})));
+        ljs.forEach(lj -> choices.add(new Junction[] {lj, null}));
+        rjs.forEach(rj -> choices.add(new Junction[] {null, rj}));
+        return choices;
+    }
+
+}
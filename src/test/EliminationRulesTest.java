@@ -2,6 +2,7 @@ package test;
 
 import converter.FormulaConverter;
 import formula.Formula;
+import formula.RuleTrace;
 import graphviz.GraphViz;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,12 +10,16 @@ import parser.ParseException;
 import parser.Parser;
 import parser.SimpleNode;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.Arrays;
 import static formula.BinaryFormula.newConjunction;
 import static formula.BinaryFormula.newDisjunction;
 import static formula.Formula.parseTreeToFormula;
 import static formula.Operator.SINCE;
 import static formula.Operator.UNTIL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static params.OutputManager.graphVizOutput;
 import static separator.eliminator.EliminationRules.*;
@@ -221,6 +226,23 @@ class EliminationRulesTest {
         compareFormulae(expected, e8);
     }
 
+    @Test
+    @DisplayName("Rule trace")
+    void ruleTraceTest() throws ParseException {
+        ByteArrayOutputStream trace = new ByteArrayOutputStream();
+        RuleTrace.setOutput(new PrintStream(trace, true));
+        try {
+            elimination1(standardFormulaeArray(), SINCE);
+        } finally {
+            RuleTrace.setOutput(null);
+        }
+        assertEquals("Elimination1", trace.toString().strip());
+        /* the trace is off, nothing is reported */
+        elimination2(standardFormulaeArray(), SINCE);
+        assertFalse(RuleTrace.isOn());
+        assertEquals("Elimination1", trace.toString().strip());
+    }
+
     private Formula[] standardFormulaeArray() throws ParseException {
         return parseFormulaeArray(new String[] {"a", "b", "c", "q"});
     }
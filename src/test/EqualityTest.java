@@ -1,5 +1,7 @@
 package test;
 
+import formula.AtomicFormula;
+import formula.BinaryFormula;
 import formula.Formula;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -9,7 +11,8 @@ import parser.SimpleNode;
 import java.io.ByteArrayInputStream;
 
 import static formula.Formula.parseTreeToFormula;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static formula.Operator.UNTIL;
+import static org.junit.jupiter.api.Assertions.*;
 
 class EqualityTest {
 
@@ -72,6 +75,35 @@ class EqualityTest {
         equalTest("G(a)&F(b)", "F(b)&G(a)", true);
     }
 
+    @Test
+    @DisplayName("Wide conjunctions")
+    void wideConjunctions() throws ParseException {
+        equalTest("(a|b)&Yc&(d S e)&Xf&g&h", "h&Xf&(d S e)&g&(b|a)&Yc", true);
+        equalTest("(a|b)&Yc&(d S e)&Xf&g&h", "h&Xf&(e S d)&g&(b|a)&Yc", false);
+        equalTest("(a&b)|(c&d)", "(d&c)|(b&a)", true);
+        equalTest("(a&b)|(c&d)", "(a&c)|(b&d)", false);
+        equalTest("a U b", "b U a", false);
+    }
+
+    @Test
+    @DisplayName("Structural hash")
+    void structuralHash() throws ParseException {
+        Formula f1 = parseFormula("G(a) & F(b) & (c U d)");
+        Formula f2 = parseFormula("(c U d) & F(b) & G(a)");
+        assertEquals(f1.structuralHash(), f2.structuralHash());
+        /* the cached hash must be invalidated when a subformula changes */
+        BinaryFormula u = (BinaryFormula) f2.searchOperator(UNTIL);
+        u.getLoperand().replaceFormula(new AtomicFormula("e"));
+        assertFalse(f1.equalTo(f2));
+        u.setLoperand(new AtomicFormula("d"));
+        assertTrue(f1.equalTo(f2));
+        u.swapChildren();
+        assertFalse(f1.equalTo(f2));
+        u.swapChildren();
+        ((AtomicFormula) u.getRoperand()).setImage("e");
+        assertFalse(f1.equalTo(f2));
+    }
+
     private void equalTest(String s1, String s2, boolean v) throws ParseException {
         Formula f1 = parseFormula(s1);
         Formula f2 = parseFormula(s2);
@@ -88,6 +120,8 @@ class EqualityTest {
 
     private void compareFormulae(Formula f1, Formula f2, boolean v) throws IllegalArgumentException {
         assertEquals(v, f1.equalTo(f2));
+        assertEquals(v, f2.equalTo(f1));
+        if(v) assertEquals(f1.structuralHash(), f2.structuralHash());
     }
 
 
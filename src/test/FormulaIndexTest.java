@@ -0,0 +1,72 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import java.io.ByteArrayInputStream;
+
+import static formula.Formula.parseTreeToFormula;
+import static formula.Operator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaIndexTest {
+
+    private final Parser parser = new Parser(System.in);
+
+    @Test
+    @DisplayName("Labelled queries")
+    void labelledQueries() throws ParseException {
+        // stored as S(q, a & !U(c, b))
+        BinaryFormula x = (BinaryFormula) parseFormula("(a&!(bUc))Sq");
+        FormulaIndex index = new FormulaIndex();
+        index.refresh(x);
+        assertTrue(index.isValid());
+        BinaryFormula y = (BinaryFormula) x.searchOperator(UNTIL);
+        Formula q = x.getLoperand();
+        assertTrue(x.isAncestorOf(y));
+        assertFalse(y.isAncestorOf(x));
+        assertFalse(x.isAncestorOf(x));
+        assertTrue(y.isInRightSubtreeOf(x));
+        assertFalse(y.isInLeftSubtreeOf(x));
+        assertTrue(q.isInLeftSubtreeOf(x));
+        assertTrue(y.isNestedInside(x));
+        assertFalse(q.isNestedInside(y));
+        assertTrue(y.isNestedInsideMirror());
+        assertFalse(x.isNestedInsideMirror());
+        assertEquals(OR, new Junction(x, y).getOperator());
+    }
+
+    @Test
+    @DisplayName("Invalidation")
+    void invalidation() throws ParseException {
+        BinaryFormula x = (BinaryFormula) parseFormula("(a&!(bUc))Sq");
+        FormulaIndex index = new FormulaIndex();
+        index.refresh(x);
+        BinaryFormula y = (BinaryFormula) x.searchOperator(UNTIL);
+        Formula q = x.getLoperand();
+        /* moving y in the left subtree of x discards the labels */
+        y.replaceFormula(new AtomicFormula("d"));
+        x.setLoperand(new BinaryFormula(OR, q, y));
+        assertFalse(index.isValid());
+        assertTrue(y.isInLeftSubtreeOf(x));
+        assertFalse(y.isInRightSubtreeOf(x));
+        index.refresh(x);
+        assertTrue(index.isValid());
+        assertTrue(y.isInLeftSubtreeOf(x));
+        x.swapChildren();
+        assertFalse(index.isValid());
+        assertTrue(y.isInRightSubtreeOf(x));
+    }
+
+    private Formula parseFormula(String str) throws ParseException {
+        byte[] formulaBytes = str.getBytes();
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
+        parser.ReInit(formulaStream);
+        SimpleNode parseTree = parser.Input();
+        return parseTreeToFormula(parseTree);
+    }
+
+}
@@ -0,0 +1,125 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import parser.TokenMgrError;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static formula.Formula.parseTreeToFormula;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaParserTest {
+
+    private final Parser parser = new Parser(System.in);
+    private final FormulaParser formulaParser = new FormulaParser();
+
+    private static final String[] FORMULAE = {
+            "a",
+            "true",
+            "false_1",
+            "a & b & c",
+            "a | b & c",
+            "a -> b -> c",
+            "a <-> b -> c | d & e U f",
+            "a U b U c",
+            "a S b W c",
+            "!a U b",
+            "!!X Fa",
+            "G(a -> F b)",
+            "H(p1 S q_2) & O r",
+            "((a))",
+            "Y(a U (b S c)) <-> X!d",
+            "(a|b)&(c|d)U e",
+            "\ta\n&\r\nb ",
+            "aUb&cSd|eWf->g<->h",
+    };
+
+    @Test
+    @DisplayName("Same formulae of the parse tree translation")
+    void sameFormulaeTest() throws ParseException {
+        for(String s : FORMULAE) {
+            Formula expected = parseTreeFormula(s);
+            Formula f = formulaParser.parse(s);
+            assertEquals(expected.toString(), f.toString(), s);
+            assertTrue(expected.equalTo(f), s);
+            assertEquals(expected.getTime(), f.getTime(), s);
+            assertEquals(expected.isSeparated(), f.isSeparated(), s);
+            assertTrue(expected.equalTo(formulaParser.parse(s.getBytes(StandardCharsets.US_ASCII))), s);
+            assertTrue(expected.equalTo(formulaParser.parse(CharBuffer.wrap(s))), s);
+        }
+    }
+
+    @Test
+    @DisplayName("Hash-consed formulae")
+    void hashConsedTest() throws ParseException {
+        FormulaTable t = new FormulaTable();
+        for(String s : FORMULAE) {
+            ImmutableFormula f = formulaParser.parse(s, FormulaParser.hashConsed(t));
+            assertSame(t.fromFormula(parseTreeFormula(s)), f, s);
+        }
+    }
+
+    @Test
+    @DisplayName("Inputs")
+    void inputsTest() throws Exception {
+        ByteBuffer b = ByteBuffer.wrap("xx(a U b)".getBytes(StandardCharsets.US_ASCII));
+        b.position(2);
+        assertEquals("a U b", formulaParser.parse(b).toString());
+        assertEquals(2, b.position());
+        assertEquals("a & b", formulaParser.parse("(a & b) | c", 1, 6, FormulaParser.FORMULAE).toString());
+        Path p = Files.createTempFile("formula", ".txt");
+        try {
+            Files.writeString(p, "G(req -> F grant)\n");
+            assertTrue(parseTreeFormula("G(req -> F grant)").equalTo(formulaParser.parse(p)));
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    @DisplayName("Rejected inputs")
+    void rejectedTest() {
+        String[] rejected = {"", " ", "a b", "a &", "& a", "(a", "a)", "()", "A", "1a", "a - > b", "a <- b", "a!", "U a", "a & (b", "a ->"};
+        for(String s : rejected) {
+            assertThrows(ParseException.class, () -> formulaParser.parse(s), s);
+            assertThrows(Throwable.class, () -> parseTreeFormula(s), s);
+        }
+        ParseException e = assertThrows(ParseException.class, () -> formulaParser.parse("a &\n b c"));
+        assertEquals("Encountered \"c\" at line 2, column 4. Was expecting a binary operator, \")\" or <EOF>.", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Deep formulae")
+    void deepTest() throws ParseException {
+        int depth = 100000;
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < depth; i++) sb.append("X(");
+        sb.append("a");
+        for(int i = 0; i < depth; i++) sb.append(")");
+        Formula f = formulaParser.parse(sb);
+        for(int i = 0; i < depth; i++) f = ((UnaryFormula) f).getOperand();
+        assertEquals("a", f.getImage());
+    }
+
+    private Formula parseTreeFormula(String str) throws ParseException {
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(str.getBytes());
+        parser.ReInit(formulaStream);
+        try {
+            SimpleNode parseTree = parser.Input();
+            return parseTreeToFormula(parseTree);
+        } catch (TokenMgrError e) {
+            throw new ParseException(e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package test;
+
+import formula.Formula;
+import formula.Operator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.FormulaReader;
+import parser.ParseException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaReaderTest {
+
+    private static final String INPUT = "G(a -> F b)\n\na U b; Oc\r\n  a & & b ;\nX(a\n!a S b";
+
+    private final FormulaReader reader = new FormulaReader();
+
+    @Test
+    @DisplayName("Streamed entries")
+    void streamTest() throws IOException, ParseException {
+        ArrayList<FormulaReader.Entry> entries = new ArrayList<>();
+        int n = reader.read(new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)), entries::add);
+        checkEntries(n, entries);
+    }
+
+    @Test
+    @DisplayName("Entries across the chunks of the stream")
+    void chunksTest() throws IOException, ParseException {
+        InputStream in = new ByteArrayInputStream(INPUT.getBytes(StandardCharsets.US_ASCII)) {
+            /* one byte for each read */
+            public synchronized int read(byte[] b, int off, int len) { return super.read(b, off, Math.min(len, 1)); }
+        };
+        ArrayList<FormulaReader.Entry> entries = new ArrayList<>();
+        int n = reader.read(in, entries::add);
+        checkEntries(n, entries);
+    }
+
+    @Test
+    @DisplayName("File entries")
+    void fileTest() throws IOException, ParseException {
+        Path p = Files.createTempFile("formulae", ".txt");
+        try {
+            Files.writeString(p, INPUT);
+            ArrayList<FormulaReader.Entry> entries = new ArrayList<>();
+            int n = reader.read(p, entries::add);
+            checkEntries(n, entries);
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    @DisplayName("Long entries")
+    void longEntriesTest() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < 3; i++) {
+            sb.append("a0");
+            for(int j = 1; j < 20000; j++) sb.append(" & a").append(j);
+            sb.append('\n');
+        }
+        ArrayList<Formula> formulae = new ArrayList<>();
+        int n = reader.read(new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.US_ASCII)),
+                e -> formulae.add(e.getFormula()));
+        assertEquals(3, n);
+        for(Formula f : formulae) assertEquals(19999, f.countOperator(Operator.AND));
+    }
+
+    private void checkEntries(int n, ArrayList<FormulaReader.Entry> entries) throws ParseException {
+        assertEquals(6, n);
+        assertEquals(6, entries.size());
+        FormulaParser parser = new FormulaParser();
+        String[] formulae = {"G(a -> F b)", "a U b", "Oc", null, null, "!a S b"};
+        int[] lines = {1, 3, 3, 4, 5, 6};
+        for(int i = 0; i < n; i++) {
+            FormulaReader.Entry e = entries.get(i);
+            assertEquals(i + 1, e.getNumber());
+            assertEquals(lines[i], e.getLine());
+            if(formulae[i] == null) {
+                assertFalse(e.isParsed());
+                assertNull(e.getFormula());
+                assertNotNull(e.getError());
+            }
+            else {
+                assertTrue(e.isParsed());
+                assertTrue(parser.parse(formulae[i]).equalTo(e.getFormula()));
+            }
+        }
+        assertEquals("a & & b", entries.get(3).getSource());
+        assertEquals("X(a", entries.get(4).getSource());
+    }
+
+}
@@ -41,6 +41,14 @@ class FormulaSimplifierTest {
         compareFormulae(simplified_f, expected_f);
     }
 
+    @Test
+    void simplifyTest4() throws ParseException {
+        BinaryFormula f = (BinaryFormula) parseFormula("false & !false");
+        Formula simplified_f = simplify(f);
+        Formula expected_f = parseFormula("false");
+        compareFormulae(simplified_f, expected_f);
+    }
+
     private Formula parseFormula(String str) throws ParseException {
         byte[] formulaBytes = str.getBytes();
         ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
@@ -0,0 +1,96 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static formula.Formula.parseTreeToFormula;
+import static formula.FormulaTraversal.Order.*;
+import static formula.Operator.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormulaTraversalTest {
+
+    private final Parser parser = new Parser(System.in);
+
+    @Test
+    @DisplayName("Orders")
+    void ordersTest() throws ParseException {
+        // stored as &(U(c, b), !(a))
+        Formula f = parseFormula("(bUc) & !a");
+        assertEquals("& U c b ! a", images(f, PRE_ORDER));
+        assertEquals("c b U a ! &", images(f, POST_ORDER));
+        assertEquals("& U ! c b a", images(f, LEVEL_ORDER));
+        ArrayList<String> skipped = new ArrayList<>();
+        FormulaTraversal.preOrder(f, g -> {
+            skipped.add(g.getImage());
+            return !g.isOperator(UNTIL);
+        });
+        assertEquals("& U ! a", String.join(" ", skipped));
+        Formula stop = FormulaTraversal.traverse(f, LEVEL_ORDER,
+                g -> g.isOperator(NOT) ? FormulaTraversal.Action.STOP : FormulaTraversal.Action.CONTINUE);
+        assertSame(f.searchOperator(NOT), stop);
+        assertEquals("(b U c) & (!(a))",
+                FormulaTraversal.reduce(f, (g, os) -> os.isEmpty() ? g.getImage() : g.toString()));
+    }
+
+    @Test
+    @DisplayName("Deep formulae")
+    void deepTest() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        /* a small stack makes any recursion over the depth of the formula overflow */
+        Thread t = new Thread(null, () -> {
+            try {
+                deepFormulae(20000);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "deep", 1 << 18);
+        t.start();
+        t.join();
+        assertNull(failure.get());
+    }
+
+    private void deepFormulae(int depth) {
+        Formula f = new AtomicFormula("a");
+        for(int i = 0; i < depth; i++) {
+            f = i % 2 == 0
+                    ? new UnaryFormula(NEXT, f)
+                    : new BinaryFormula(UNTIL, f, new AtomicFormula("b"));
+        }
+        Formula c = f.deepCopy();
+        assertNotSame(f, c);
+        assertEquals(f.structuralHash(), c.structuralHash());
+        assertTrue(f.equalTo(c));
+        assertEquals(f.toString(), c.toString());
+        assertEquals(0, f.degree());
+        assertEquals(depth / 2, f.getPathMetrics().getK(UNTIL));
+        assertEquals(1, f.searchOperators(UNTIL).size());
+        assertFalse(f.containsOperatorOfTime(Operator.SINCE.getTime()));
+        assertEquals(depth / 2 + 1, f.getPaths().size());
+    }
+
+    private static String images(Formula f, FormulaTraversal.Order o) {
+        ArrayList<String> images = new ArrayList<>();
+        FormulaTraversal.traverse(f, o, g -> {
+            images.add(g.getImage());
+            return FormulaTraversal.Action.CONTINUE;
+        });
+        return String.join(" ", images);
+    }
+
+    private Formula parseFormula(String str) throws ParseException {
+        byte[] formulaBytes = str.getBytes();
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
+        parser.ReInit(formulaStream);
+        SimpleNode parseTree = parser.Input();
+        return parseTreeToFormula(parseTree);
+    }
+
+}
@@ -0,0 +1,143 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static formula.Formula.parseTreeToFormula;
+import static formula.Operator.*;
+import static formula.TimeConstant.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImmutableFormulaTest {
+
+    private final Parser parser = new Parser(System.in);
+    private final FormulaTable table = new FormulaTable();
+
+    @Test
+    @DisplayName("Structurally equal formulae are the same object")
+    void sharing() throws ParseException {
+        ImmutableFormula f1 = table.fromFormula(parseFormula("(a & Yb) S (c | Fd)"));
+        ImmutableFormula f2 = table.fromFormula(parseFormula("(a & Yb) S (c | Fd)"));
+        assertSame(f1, f2);
+        assertTrue(f1.equalTo(f2));
+        assertSame(f1, f1.deepCopy());
+        ImmutableFormula g = table.fromFormula(parseFormula("(Yb) S (c | Fd)"));
+        assertNotSame(f1, g);
+        assertSame(f1.getLoperand(), g.getLoperand());
+    }
+
+    @Test
+    @DisplayName("Subformulae shared by many parents are stored once")
+    void sharedSubformulae() throws ParseException {
+        int before = table.size();
+        ImmutableFormula f = table.fromFormula(parseFormula("(a U b) & (a U b)"));
+        assertSame(f.getLoperand(), f.getRoperand());
+        // a, b, a U b, (a U b) & (a U b)
+        assertEquals(before + 4, table.size());
+        assertEquals(7, f.size());
+    }
+
+    @Test
+    @DisplayName("Time and separation")
+    void timeAndSeparation() throws ParseException {
+        timeTest("a & b", PRESENT, true);
+        timeTest("Ya & Ob", PAST, true);
+        timeTest("Xa | Fb", FUTURE, true);
+        timeTest("Ya & Xb", MIXED, true);
+        timeTest("a S (Fb)", MIXED, false);
+        timeTest("G(b -> Ya)", MIXED, false);
+    }
+
+    @Test
+    @DisplayName("Round trip through the mutable representation")
+    void roundTrip() throws ParseException {
+        roundTripTest("G(a -> Fb & Oc)");
+        roundTripTest("(a & !(b U c)) S q");
+        roundTripTest("a S (q | (b U c))");
+    }
+
+    @Test
+    @DisplayName("Zipper replacement rebuilds only the ancestors")
+    void zipperReplace() throws ParseException {
+        ImmutableFormula f = table.fromFormula(parseFormula("(a & (b U c)) S q"));
+        FormulaZipper z = FormulaZipper.of(table, f);
+        // "(a & (b U c)) S q" is stored as S(q, a & (b U c))
+        FormulaZipper u = z.right().right();
+        assertTrue(u.getFocus().isOperator(UNTIL));
+        assertTrue(u.isNestedInside(SINCE));
+        assertEquals(2, u.depth());
+        ImmutableFormula r = u.replace(table.atom("d")).root();
+        assertSame(table.fromFormula(parseFormula("(a & d) S q")), r);
+        assertSame(f.getLoperand(), r.getLoperand());
+        assertSame(f, u.root());
+    }
+
+    @Test
+    @DisplayName("Combination")
+    void combination() throws ParseException {
+        ImmutableFormula a = table.atom("a");
+        ImmutableFormula b = table.atom("b");
+        ImmutableFormula c = table.atom("c");
+        assertSame(
+                table.fromFormula(parseFormula("a & b & c")),
+                table.combination(AND, List.of(a, b, c))
+        );
+        assertThrows(IllegalArgumentException.class, () -> table.unary(AND, a));
+    }
+
+    @Test
+    @DisplayName("Deep formulae")
+    void deepTest() throws InterruptedException {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        /* a small stack makes any recursion over the depth of the formula overflow */
+        Thread t = new Thread(null, () -> {
+            try {
+                int depth = 20000;
+                ImmutableFormula f = table.atom("a");
+                for(int i = 0; i < depth; i++) f = i % 2 == 0 ? table.unary(NEXT, f) : table.binary(UNTIL, f, table.atom("b"));
+                Formula g = f.toFormula();
+                int size = FormulaTraversal.<Integer>reduce(g, (h, os) -> 1 + os.stream().mapToInt(Integer::intValue).sum());
+                assertEquals(f.size(), size);
+                assertSame(f, table.fromFormula(g));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "deep", 1 << 18);
+        t.start();
+        t.join();
+        assertNull(failure.get());
+    }
+
+    private void timeTest(String s, TimeConstant t, boolean sep) throws ParseException {
+        Formula f = parseFormula(s);
+        ImmutableFormula imf = table.fromFormula(f);
+        assertEquals(t, imf.getTime());
+        assertEquals(sep, imf.isSeparated());
+        assertEquals(f.getTime(), imf.getTime());
+        assertEquals(f.isSeparated(), imf.isSeparated());
+    }
+
+    private void roundTripTest(String s) throws ParseException {
+        Formula f = parseFormula(s);
+        ImmutableFormula imf = table.fromFormula(f);
+        assertEquals(f.toString(), imf.toString());
+        assertTrue(f.equalTo(imf.toFormula()));
+        assertSame(imf, table.fromFormula(imf.toFormula()));
+    }
+
+    private Formula parseFormula(String str) throws ParseException {
+        byte[] formulaBytes = str.getBytes();
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
+        parser.ReInit(formulaStream);
+        SimpleNode parseTree = parser.Input();
+        return parseTreeToFormula(parseTree);
+    }
+
+}
@@ -0,0 +1,65 @@
+package test;
+
+import formula.Formula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.LtlpSeparator;
+import separator.SeparationResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LtlpSeparatorTest {
+
+    private static final String[] FORMULAE = {
+            "(a&(bUc))Sq", "aS(q|(bUc))", "(a&(bSc))Uq", "G(b -> Ya)", "a U b", "(a&!(bUc))Sq"
+    };
+
+    @Test
+    @DisplayName("Separation")
+    void separationTest() throws ParseException, InterruptedException {
+        SeparationResult r = LtlpSeparator.separate("(a&(bUc))Sq");
+        assertTrue(r.getSeparated().isSeparated());
+        assertTrue(r.getNormalized().isSeparated());
+        assertEquals(r.getDegree(), r.getMatrix().getDegree());
+        assertEquals("(a & (b U c)) S q", r.getFormula().toString());
+        assertThrows(ParseException.class, () -> LtlpSeparator.separate("a &"));
+    }
+
+    @Test
+    @DisplayName("Input formula not modified")
+    void inputTest() throws ParseException, InterruptedException {
+        Formula f = new FormulaParser().parse("(a&!(bUc))Sq");
+        String s = f.toString();
+        SeparationResult r = LtlpSeparator.separate(f);
+        assertEquals(s, f.toString());
+        assertNotSame(f, r.getFormula());
+        assertTrue(f.equalTo(r.getFormula()));
+    }
+
+    @Test
+    @DisplayName("Concurrent separations")
+    void concurrencyTest() throws Exception {
+        ArrayList<String> expected = new ArrayList<>();
+        for(String s : FORMULAE) expected.add(LtlpSeparator.separate(s).toString());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for(int k = 0; k < 4; k++) {
+                for(String s : FORMULAE) results.add(pool.submit(() -> LtlpSeparator.separate(s).toString()));
+            }
+            for(int i = 0; i < results.size(); i++) {
+                assertEquals(expected.get(i % FORMULAE.length), results.get(i).get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+}
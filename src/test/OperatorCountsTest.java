@@ -0,0 +1,80 @@
+package test;
+
+import formula.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.ParseException;
+import parser.Parser;
+import parser.SimpleNode;
+import java.io.ByteArrayInputStream;
+
+import static formula.Formula.parseTreeToFormula;
+import static formula.Operator.*;
+import static formula.TimeConstant.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperatorCountsTest {
+
+    private final Parser parser = new Parser(System.in);
+
+    @Test
+    @DisplayName("Counts")
+    void countsTest() throws ParseException {
+        countsTest("a & b", 0, 0);
+        countsTest("Ya & O(b S c)", 3, 0);
+        countsTest("G(a -> Fb & Oc)", 1, 2);
+        countsTest("(a&!(bUc))S(q|!(bUc))", 1, 2);
+    }
+
+    @Test
+    @DisplayName("Separation after replacement")
+    void replacementTest() throws ParseException {
+        Formula f = parseFormula("G(a -> (b S c))");
+        assertFalse(f.isSeparated());
+        OperatorFormula s = f.searchOperator(SINCE);
+        s.replaceFormula(new AtomicFormula("d"));
+        assertEquals(0, f.countPastOperators());
+        assertFalse(f.containsOperatorOfTime(PAST));
+        assertTrue(f.isSeparated());
+        OperatorFormula impl = f.searchOperator(IMPL);
+        ((BinaryFormula) impl).setLoperand(new UnaryFormula(YEST, new AtomicFormula("a")));
+        assertEquals(1, f.countPastOperators());
+        assertFalse(f.isSeparated());
+    }
+
+    @Test
+    @DisplayName("Operator occurrences")
+    void occurrencesTest() throws ParseException {
+        Formula f = parseFormula("((a U b) S c) & !(d S (e U (f U g)))");
+        assertEquals(3, f.countOperator(UNTIL));
+        assertEquals(2, f.countOperator(SINCE));
+        assertEquals(0, f.countOperator(GLOB));
+        assertNull(f.searchOperator(GLOB));
+        assertEquals(2, f.searchOperators(SINCE).size());
+        assertEquals(2, f.searchOperators(UNTIL).size());
+        /* the cached occurrences are discarded when a subformula changes */
+        OperatorFormula s = f.searchOperator(SINCE);
+        s.replaceFormula(new UnaryFormula(GLOB, new AtomicFormula("h")));
+        assertEquals(1, f.countOperator(SINCE));
+        assertEquals(1, f.searchOperators(SINCE).size());
+        assertEquals(1, f.searchOperators(UNTIL).size());
+        assertNotNull(f.searchOperator(GLOB));
+    }
+
+    private void countsTest(String s, int past, int future) throws ParseException {
+        Formula f = parseFormula(s);
+        assertEquals(past, f.countPastOperators());
+        assertEquals(future, f.countFutureOperators());
+        assertEquals(past > 0, f.containsOperatorOfTime(PAST));
+        assertEquals(future > 0, f.containsOperatorOfTime(FUTURE));
+    }
+
+    private Formula parseFormula(String str) throws ParseException {
+        byte[] formulaBytes = str.getBytes();
+        ByteArrayInputStream formulaStream = new ByteArrayInputStream(formulaBytes);
+        parser.ReInit(formulaStream);
+        SimpleNode parseTree = parser.Input();
+        return parseTreeToFormula(parseTree);
+    }
+
+}
@@ -0,0 +1,71 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.FormulaSeparator;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PureAbstractionTest {
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Pure present subformulae kept intact")
+    void pureSubformulaeTest() throws ParseException, ExecutionException, InterruptedException {
+        /* the pure present subformulae are separated as if they were atoms */
+        assertSameSeparation("((a | b) & (c U d)) S q", "(z & (c U d)) S q", "z", "(a | b)");
+        assertSameSeparation("(a & (b U c)) S (q -> (r & s))", "(a & (b U c)) S y", "y", "((!(q)) | (r & s))");
+        assertSameSeparation("(a & (b U (c <-> d))) S q", "(a & (b U x)) S q", "x", null);
+    }
+
+    @Test
+    @DisplayName("No placeholders left")
+    void placeholdersTest() throws ParseException, ExecutionException, InterruptedException {
+        Formula f = separate("((a | b) & !(a | b) & ((c & d) U e)) S (q & !r)");
+        assertTrue(f.isSeparated());
+        assertFalse(f.toString().contains("_"));
+        assertEquals("a", separate("a").toString());
+        assertEquals("(a | b) U c", separate("(a | b) U c").toString());
+    }
+
+    @Test
+    @DisplayName("Same separation without the abstraction")
+    void unabstractedTest() throws ParseException, ExecutionException, InterruptedException {
+        String[] formulae = {
+                "((a | b) & !(a | b) & ((c & d) U e)) S (q & !r)",
+                "(q | cUb)S(!b & !c & (q | cUb) & (!b & q)Sa )",
+                "((a | b) & (c U d)) S q",
+                "(a & (b U c)) S (q -> (r & s))",
+                "(a & ((b | ((c & d) & e & f & !(xUy)) | g ) | h) | z) S q",
+                "G((a|b) -> (a & Fb) | (a & Ob) | (b & Fa) | (b & Oa))"
+        };
+        for(String s : formulae) {
+            FormulaSeparator plain = new FormulaSeparator();
+            plain.setPureAbstraction(false);
+            Formula expected = plain.separate(new FormulaConverter().convert(parser.parse(s)));
+            Formula f = separate(s);
+            assertEquals(expected.toString(), f.toString(), s);
+            assertTrue(expected.equalTo(f), s);
+        }
+    }
+
+    /** Asserts that the separation of f is the one of g whose atom is substituted by the subformula of f,
+     * which is the one printed by the converter when it is null */
+    private void assertSameSeparation(String f, String g, String atom, String subformula)
+            throws ParseException, ExecutionException, InterruptedException {
+        if(subformula == null) subformula = "(" + new FormulaConverter().convert(parser.parse("c <-> d")) + ")";
+        String expected = separate(g).toString().replaceAll("\\b" + atom + "\\b", subformula);
+        assertTrue(parser.parse(expected).equalTo(separate(f)), f);
+    }
+
+    private Formula separate(String s) throws ParseException, ExecutionException, InterruptedException {
+        return new FormulaSeparator().separate(new FormulaConverter().convert(parser.parse(s)));
+    }
+
+}
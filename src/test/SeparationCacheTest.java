@@ -0,0 +1,101 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.Formula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.FormulaSeparator;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeparationCacheTest {
+
+    private static final String[] FORMULAE = {
+            "(a&(bUc))Sq", "aS(q|(bUc))", "(a&(bSc))Uq", "G(b -> Ya)", "(a&!(bUc))Sq", "((a&(bUc))Sq) | ((a&(bUc))Sq U r)"
+    };
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Counters")
+    void countersTest() throws ParseException {
+        SeparationCache c = new SeparationCache(100);
+        Formula f = parser.parse("a U b"), g = parser.parse("b & a"), s = parser.parse("a & b");
+        assertNull(c.get(f));
+        c.put(f, f);
+        c.put(s, s);
+        assertEquals(1, c.getHits() + c.getMisses());
+        assertTrue(c.get(g).equalTo(s));
+        assertEquals(1, c.getHits());
+        assertEquals(1, c.getMisses());
+        assertEquals(2, c.size());
+        assertEquals(2 * f.size() + 2 * s.size(), c.getWeight());
+        c.clear();
+        assertEquals(0, c.getWeight());
+        assertNull(c.get(f));
+        assertEquals(2, c.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> new SeparationCache(-1));
+    }
+
+    @Test
+    @DisplayName("Bound on the nodes")
+    void boundTest() throws ParseException {
+        Formula a = parser.parse("a U b"), b = parser.parse("b U c"), c = parser.parse("c U d");
+        SeparationCache cache = new SeparationCache(2L * a.size() + 2L * b.size());
+        cache.put(a, a);
+        cache.put(b, b);
+        assertNotNull(cache.get(a)); // b is now the least recently used
+        cache.put(c, c);
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get(b));
+        assertNotNull(cache.get(a));
+        assertNotNull(cache.get(c));
+        assertTrue(cache.getWeight() <= cache.getCapacity());
+        cache.put(parser.parse("(a U b) & (b U c) & (c U d)"), a);
+        assertEquals(2, cache.size());
+        SeparationCache disabled = new SeparationCache(0);
+        disabled.put(a, a);
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    @DisplayName("Copies")
+    void copiesTest() throws ParseException {
+        SeparationCache c = new SeparationCache(100);
+        Formula f = parser.parse("a U b"), s = parser.parse("a & b");
+        c.put(f, s);
+        Formula h1 = c.get(f);
+        assertNotSame(s, h1);
+        assertNotSame(h1, c.get(f));
+        f.replaceFormula(parser.parse("c"));
+        assertTrue(c.get(parser.parse("a U b")).equalTo(s));
+    }
+
+    @Test
+    @DisplayName("Cached separations")
+    void separationTest() throws ParseException, ExecutionException, InterruptedException {
+        SeparationCache c = new SeparationCache(1 << 16);
+        for(int k = 0; k < 2; k++) {
+            for(String s : FORMULAE) {
+                Formula plain = new FormulaSeparator().separate(convert(s));
+                Formula cached = new FormulaSeparator(c).separate(convert(s));
+                assertTrue(cached.isSeparated(), s);
+                assertEquals(plain.toString(), cached.toString(), s);
+            }
+        }
+        assertTrue(c.getHits() >= FORMULAE.length);
+        assertTrue(c.size() > 0);
+        String expected = LtlpSeparator.separate(parser.parse(FORMULAE[0]), null).toString();
+        assertEquals(expected, LtlpSeparator.separate(parser.parse(FORMULAE[0]), c).toString());
+    }
+
+    private Formula convert(String s) throws ParseException {
+        return new FormulaConverter().convert(parser.parse(s));
+    }
+
+}
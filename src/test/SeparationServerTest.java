@@ -0,0 +1,159 @@
+package test;
+
+import main.SeparationClient;
+import main.SeparationServer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import separator.BuiltinStrategy;
+import separator.LtlpSeparator;
+import separator.SeparationSettings;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeparationServerTest {
+
+    @Test
+    @DisplayName("Requests")
+    void requestsTest() throws Exception {
+        try (SeparationServer server = start(); SeparationClient client = new SeparationClient(server.getPort())) {
+            Map<String, Object> a = client.request("separate", "(a&(bUc))Sq");
+            assertEquals(1.0, a.get("id"));
+            assertEquals("(a & (b U c)) S q", a.get("input"));
+            assertEquals(LtlpSeparator.separate("(a&(bUc))Sq").getNormalized().toString(), a.get("normalized"));
+            List<?> matrix = (List<?>) a.get("matrix");
+            assertEquals(((Double) a.get("degree")).intValue(), matrix.size());
+            assertEquals(3, ((List<?>) matrix.get(0)).size());
+            assertEquals("true U a", client.request("convert", "F a").get("converted"));
+            IOException e = assertThrows(IOException.class, () -> client.request("separate", "a &"));
+            assertTrue(e.getMessage().contains("Encountered"));
+            assertThrows(IOException.class, () -> client.request("simplify", "a"));
+            // the connection is still usable after the errors
+            assertEquals("a U b", client.request("separate", "a U b").get("separated"));
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent clients")
+    void concurrentClientsTest() throws Exception {
+        String[] formulae = {"(a&(bUc))Sq", "aS(q|(bUc))", "(a&(bSc))Uq", "G(b -> Ya)"};
+        ArrayList<String> expected = new ArrayList<>();
+        for(String f : formulae) expected.add(LtlpSeparator.separate(f).getNormalized().toString());
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (SeparationServer server = start()) {
+            List<Future<List<Object>>> results = new ArrayList<>();
+            for(int k = 0; k < 4; k++) {
+                results.add(pool.submit(() -> {
+                    List<Object> r = new ArrayList<>();
+                    try (SeparationClient client = new SeparationClient(server.getPort())) {
+                        for(String f : formulae) r.add(client.request("separate", f).get("normalized"));
+                    }
+                    return r;
+                }));
+            }
+            for(Future<List<Object>> r : results) assertEquals(expected, r.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Pipelined requests")
+    void pipelinedRequestsTest() throws Exception {
+        String[] formulae = {"(a&(bUc))Sq", "bad &&", "a U b", "G(b -> Ya)"};
+        StringBuilder requests = new StringBuilder();
+        for(int i = 0; i < formulae.length; i++) {
+            requests.append("{\"id\":").append(i).append(",\"formula\":\"").append(formulae[i]).append("\"}");
+            /* the last request is not terminated, the client closes its side after it */
+            if(i < formulae.length - 1) requests.append("\r\n\n");
+        }
+        try (SeparationServer server = start();
+             Socket s = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            s.getOutputStream().write(requests.toString().getBytes(StandardCharsets.UTF_8));
+            s.shutdownOutput();
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            List<String> answers = in.lines().toList();
+            assertEquals(formulae.length, answers.size());
+            for(int i = 0; i < formulae.length; i++) assertTrue(answers.get(i).startsWith("{\"id\":" + i + ","), answers.get(i));
+            assertTrue(answers.get(1).contains("\"error\""));
+            assertTrue(answers.get(2).contains("\"separated\":\"a U b\""));
+        }
+    }
+
+    @Test
+    @DisplayName("Requests sent without reading the answers")
+    void backpressureTest() throws Exception {
+        int n = 500;
+        StringBuilder requests = new StringBuilder();
+        for(int i = 0; i < n; i++) requests.append("{\"id\":").append(i).append(",\"formula\":\"a U b\"}\n");
+        try (SeparationServer server = start();
+             Socket s = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            /* the requests are written in one go, much more than the server keeps pending */
+            s.getOutputStream().write(requests.toString().getBytes(StandardCharsets.UTF_8));
+            s.shutdownOutput();
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            List<String> answers = in.lines().toList();
+            assertEquals(n, answers.size());
+            for(int i = 0; i < n; i++) assertTrue(answers.get(i).startsWith("{\"id\":" + i + ",\"input\":\"a U b\""), answers.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Request too long")
+    void tooLongTest() throws Exception {
+        String tooLong = "{\"id\":0,\"formula\":\"" + "a & ".repeat(1 << 18) + "b\"}\n";
+        try (SeparationServer server = start();
+             Socket s = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            s.getOutputStream().write((tooLong + "{\"id\":1,\"formula\":\"a U b\"}\n").getBytes(StandardCharsets.UTF_8));
+            s.shutdownOutput();
+            BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+            List<String> answers = in.lines().toList();
+            assertEquals(2, answers.size());
+            assertTrue(answers.get(0).startsWith("{\"id\":null,\"error\":\"The request is longer than"), answers.get(0));
+            assertTrue(answers.get(1).contains("\"separated\":\"a U b\""), answers.get(1));
+        }
+    }
+
+    @Test
+    @DisplayName("Settings of the server")
+    void settingsTest() throws Exception {
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        SeparationSettings beam = new SeparationSettings(BuiltinStrategy.GREEDY, 4, 64);
+        String expected = LtlpSeparator.separate(new FormulaParser().parse(s), null, beam).getSeparated().toString();
+        assertNotEquals(LtlpSeparator.separate(s).getSeparated().toString(), expected);
+        try (SeparationServer server = start(beam); SeparationClient client = new SeparationClient(server.getPort())) {
+            assertEquals(expected, client.request("separate", s).get("separated"));
+        }
+    }
+
+    /** @return Returns a server listening on a free port, served by a background thread */
+    private static SeparationServer start() throws IOException { return start(SeparationSettings.DEFAULT); }
+
+    /** @return Returns a server separating by the given settings, listening on a free port, served by a background thread */
+    private static SeparationServer start(SeparationSettings settings) throws IOException {
+        SeparationServer server = new SeparationServer(0, settings);
+        Thread t = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        t.setDaemon(true);
+        t.start();
+        return server;
+    }
+
+}
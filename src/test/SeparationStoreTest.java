@@ -0,0 +1,101 @@
+package test;
+
+import formula.CombinationFormula;
+import formula.Formula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import separator.LtlpSeparator;
+import separator.SeparationResult;
+import separator.SeparationStore;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeparationStoreTest {
+
+    private static final String[] FORMULAE = {"(a&(bUc))Sq", "aS(q|(bUc))", "G(b -> Ya)", "(a&!(bUc))Sq"};
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Separations kept across runs")
+    void persistenceTest() throws Exception {
+        Path p = Files.createTempFile("separations", ".bin");
+        try {
+            try (SeparationStore s = SeparationStore.open(p)) {
+                for(String f : FORMULAE) {
+                    assertNull(s.get(parser.parse(f)));
+                    LtlpSeparator.separateStored(parser.parse(f), s);
+                }
+                LtlpSeparator.separateStored(parser.parse(FORMULAE[0]), s);
+                assertEquals(FORMULAE.length, s.size());
+            }
+            try (SeparationStore s = SeparationStore.open(p)) {
+                assertEquals(FORMULAE.length, s.size());
+                for(String f : FORMULAE) {
+                    Formula phi = parser.parse(f);
+                    SeparationResult expected = LtlpSeparator.separate(phi);
+                    SeparationResult stored = s.get(phi);
+                    assertNotNull(stored, f);
+                    assertNotSame(phi, stored.getFormula());
+                    assertTrue(phi.equalTo(stored.getFormula()));
+                    assertEquals(expected.getSeparated().toString(), stored.getSeparated().toString());
+                    assertEquals(expected.getNormalized().toString(), stored.getNormalized().toString());
+                    assertEquals(expected.getMatrix().toString(), stored.getMatrix().toString());
+                }
+                assertNull(s.get(parser.parse("a U c")));
+            }
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    @DisplayName("Interrupted record")
+    void truncationTest() throws Exception {
+        Path p = Files.createTempFile("separations", ".bin");
+        try {
+            long length;
+            try (SeparationStore s = SeparationStore.open(p)) {
+                LtlpSeparator.separateStored(parser.parse(FORMULAE[0]), s);
+                length = Files.size(p);
+                LtlpSeparator.separateStored(parser.parse(FORMULAE[1]), s);
+            }
+            try (FileChannel ch = FileChannel.open(p, StandardOpenOption.WRITE)) {
+                ch.truncate(Files.size(p) - 3);
+            }
+            try (SeparationStore s = SeparationStore.open(p)) {
+                assertEquals(1, s.size());
+                assertEquals(length, Files.size(p));
+                assertNotNull(s.get(parser.parse(FORMULAE[0])));
+                assertNull(s.get(parser.parse(FORMULAE[1])));
+            }
+            Files.writeString(p, "not a store");
+            assertThrows(IOException.class, () -> SeparationStore.open(p));
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+    @Test
+    @DisplayName("Combinations")
+    void combinationTest() throws Exception {
+        Path p = Files.createTempFile("separations", ".bin");
+        try (SeparationStore s = SeparationStore.open(p)) {
+            Formula f = CombinationFormula.flatten(parser.parse("(a U b) & c & (d S e) & c"));
+            assertInstanceOf(CombinationFormula.class, f);
+            LtlpSeparator.separateStored(f, s);
+            SeparationResult r = s.get(parser.parse("c & (d S e) & c & (a U b)"));
+            assertNotNull(r);
+            assertEquals(LtlpSeparator.separate(f).toString(), r.toString());
+        } finally {
+            Files.delete(p);
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package test;
+
+import converter.FormulaConverter;
+import formula.BinaryFormula;
+import formula.Formula;
+import main.BatchPipeline;
+import main.StrategyBenchmark;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.BuiltinStrategy;
+import separator.FormulaSeparator;
+import separator.LtlpSeparator;
+import separator.SeparationCache;
+import separator.SeparationSettings;
+import separator.SeparationStrategy;
+import separator.eliminator.EliminationCost;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeparationStrategyTest {
+
+    private final FormulaParser parser = new FormulaParser();
+
+    private static final String[] FORMULAE = {"G(b -> Ya)", "(a&(bUc))Sq", "(a&!(bUc))S(q|!(bUc))", "aS(q|!(bUc))"};
+
+    @Test
+    @DisplayName("Built-in strategies")
+    void builtinStrategiesTest() throws ParseException, ExecutionException, InterruptedException {
+        for(String s : FORMULAE) {
+            Formula greedy = new FormulaSeparator((SeparationCache) null).separate(convert(s));
+            for(BuiltinStrategy strategy : BuiltinStrategy.values()) {
+                FormulaSeparator separator = new FormulaSeparator((SeparationCache) null);
+                separator.setStrategy(strategy);
+                Formula separated = separator.separate(convert(s));
+                assertTrue(separated.isSeparated(), strategy + " " + s);
+                assertTrue(separator.getSteps() > 0, strategy + " " + s);
+                /* the greedy strategy is the one of the separator by default */
+                if(strategy == BuiltinStrategy.GREEDY) assertTrue(separated.equalTo(greedy), s);
+            }
+        }
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        assertTrue(separate(s, BuiltinStrategy.SMALLEST_PRODUCTION).size() < separate(s, BuiltinStrategy.GREEDY).size());
+    }
+
+    @Test
+    @DisplayName("Stale xs")
+    void staleXsTest() throws ParseException, ExecutionException, InterruptedException {
+        String s = "a S (b U (c S (d U e)))";
+        FormulaSeparator greedy = new FormulaSeparator((SeparationCache) null);
+        greedy.separate(convert(s));
+        assertEquals(0, greedy.getWastedPops());
+        /* the outer xs rewritten first detach the inner ones, whose entries are skipped */
+        SeparationStrategy shallowest = new SeparationStrategy() {
+            public void order(List<BinaryFormula> xs) {
+                BuiltinStrategy.DEEPEST_FIRST.order(xs);
+                Collections.reverse(xs);
+            }
+
+            public int choose(EliminationCost[] costs) { return BuiltinStrategy.GREEDY.choose(costs); }
+        };
+        FormulaSeparator separator = new FormulaSeparator((SeparationCache) null);
+        separator.setStrategy(shallowest);
+        separator.separate(convert(s));
+        assertTrue(separator.getWastedPops() > 0);
+        assertTrue(separator.getSteps() < greedy.getSteps());
+    }
+
+    @Test
+    @DisplayName("Custom strategy")
+    void customStrategyTest() throws ParseException, ExecutionException, InterruptedException {
+        ArrayList<Integer> choices = new ArrayList<>();
+        SeparationStrategy last = new SeparationStrategy() {
+            public void order(List<BinaryFormula> xs) { Collections.reverse(xs); }
+
+            public int choose(EliminationCost[] costs) {
+                choices.add(costs.length);
+                int minDegree = Arrays.stream(costs).mapToInt(EliminationCost::degree).min().getAsInt();
+                int chosen = costs.length - 1;
+                while(costs[chosen].degree() != minDegree) chosen--;
+                return chosen;
+            }
+        };
+        for(String s : FORMULAE) assertTrue(separate(s, last).isSeparated(), s);
+        assertFalse(choices.isEmpty());
+        assertThrows(NullPointerException.class, () -> new FormulaSeparator().setStrategy(null));
+    }
+
+    @Test
+    @DisplayName("Strategy benchmark")
+    void strategyBenchmarkTest() throws ParseException, InterruptedException {
+        ArrayList<Formula> corpus = new ArrayList<>();
+        for(String s : FORMULAE) corpus.add(parser.parse(s));
+        List<StrategyBenchmark.Report> reports = new StrategyBenchmark(corpus).runAll();
+        assertEquals(BuiltinStrategy.values().length, reports.size());
+        for(StrategyBenchmark.Report r : reports) {
+            assertEquals(FORMULAE.length, r.getFormulae());
+            assertEquals(0, r.getFailed());
+            assertTrue(r.getSteps() > 0 && r.getSize() > 0);
+        }
+        assertEquals(BuiltinStrategy.GREEDY.name(), reports.get(0).getStrategy());
+        // the corpus is not modified
+        assertEquals(FORMULAE.length, corpus.size());
+        assertTrue(corpus.get(0).equalTo(parser.parse(FORMULAE[0])));
+        /* a formula left unseparated is a failure, out of the totals */
+        StrategyBenchmark.Report greedy = reports.get(0);
+        corpus.add(parser.parse("(aUb)S(bUc)"));
+        StrategyBenchmark.Report r = new StrategyBenchmark(corpus).run("GREEDY", BuiltinStrategy.GREEDY);
+        assertEquals(1, r.getFailed());
+        assertEquals(greedy.getSize(), r.getSize());
+        assertEquals(greedy.getSteps(), r.getSteps());
+    }
+
+    @Test
+    @DisplayName("Settings of the library")
+    void settingsTest() throws ParseException, ExecutionException, InterruptedException, IOException {
+        String s = "(a&!(bUc))S(q|!(bUc))";
+        Formula smallest = separate(s, BuiltinStrategy.SMALLEST_PRODUCTION);
+        SeparationSettings settings = new SeparationSettings(BuiltinStrategy.SMALLEST_PRODUCTION, 1, 0);
+        assertFalse(settings.isCached());
+        assertTrue(SeparationSettings.DEFAULT.isCached());
+        /* the cache filled by GREEDY is not used by another strategy, nor filled by it */
+        SeparationCache cache = new SeparationCache(1 << 20);
+        Formula greedy = LtlpSeparator.separate(parser.parse(s), cache).getSeparated();
+        long hits = cache.getHits();
+        int size = cache.size();
+        assertTrue(smallest.equalTo(LtlpSeparator.separate(parser.parse(s), cache, settings).getSeparated()));
+        assertEquals(hits, cache.getHits());
+        assertEquals(size, cache.size());
+        assertFalse(smallest.equalTo(greedy));
+        /* the batch pipeline separates by the given settings */
+        StringWriter out = new StringWriter();
+        new BatchPipeline(1, null, null, settings).run(new ByteArrayInputStream(s.getBytes(StandardCharsets.US_ASCII)), out);
+        assertTrue(out.toString().contains("\"separated\":\"" + smallest + "\""));
+        assertThrows(NullPointerException.class, () -> new SeparationSettings(null, 1, 0));
+    }
+
+    private Formula convert(String s) throws ParseException {
+        return new FormulaConverter().convert(parser.parse(s));
+    }
+
+    private Formula separate(String s, SeparationStrategy strategy)
+            throws ParseException, ExecutionException, InterruptedException {
+        FormulaSeparator separator = new FormulaSeparator((SeparationCache) null);
+        separator.setStrategy(strategy);
+        return separator.separate(convert(s));
+    }
+
+}
@@ -0,0 +1,74 @@
+package test;
+
+import formula.Formula;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import parser.FormulaParser;
+import parser.ParseException;
+import separator.LtlpSeparator;
+import separator.SeparationResult;
+import separator.TemplateSeparator;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TemplateSeparatorTest {
+
+    /** Instances of the Precedence, ChainPrecedence, ChainSuccession and BidirectionalTimeConsequent patterns */
+    private static final String[][] INSTANCES = {
+            {"G(b -> Oa)", "G(ship -> O order)", "G(a -> O b)"},
+            {"G(b -> Ya)", "G(close -> Y open)"},
+            {"G((a|b) -> (a & Xb) | (b & Ya))", "G((x1|y_2) -> (x1 & X y_2) | (y_2 & Y x1))"},
+            {"G(a -> Fb & Oc)", "G(req -> F grant & O login)"}
+    };
+
+    private final FormulaParser parser = new FormulaParser();
+
+    @Test
+    @DisplayName("Instances of templates")
+    void instancesTest() throws ParseException, InterruptedException {
+        TemplateSeparator t = new TemplateSeparator(16);
+        int n = 0;
+        for(String[] pattern : INSTANCES) {
+            for(String s : pattern) {
+                Formula f = parser.parse(s);
+                SeparationResult r = t.separate(f);
+                SeparationResult expected = LtlpSeparator.separate(f);
+                assertTrue(f.equalTo(r.getFormula()));
+                assertEquals(expected.getSeparated().toString(), r.getSeparated().toString(), s);
+                assertEquals(expected.getNormalized().toString(), r.getNormalized().toString(), s);
+                assertEquals(expected.getMatrix().toString(), r.getMatrix().toString(), s);
+                n++;
+            }
+        }
+        assertEquals(INSTANCES.length, t.getMisses());
+        assertEquals(n - INSTANCES.length, t.getHits());
+        assertEquals(INSTANCES.length, t.size());
+    }
+
+    @Test
+    @DisplayName("Truth values and capacity")
+    void truthValuesTest() throws ParseException, InterruptedException {
+        TemplateSeparator t = new TemplateSeparator(1);
+        t.separate(parser.parse("a U true"));
+        t.separate(parser.parse("c U true"));
+        assertEquals(1, t.getHits());
+        t.separate(parser.parse("b U false"));
+        assertEquals(1, t.size());
+        t.separate(parser.parse("a U true")); // its template has been evicted
+        assertEquals(1, t.getHits());
+        assertEquals(3, t.getMisses());
+        assertThrows(IllegalArgumentException.class, () -> new TemplateSeparator(0));
+    }
+
+    @Test
+    @DisplayName("Renaming of the atoms")
+    void renameAtomsTest() throws ParseException {
+        Formula f = parser.parse("(a & b) U (b S true)");
+        Formula g = f.renameAtoms(Map.of("a", "b", "b", "c"));
+        assertEquals("(b & c) U (c S true)", g.toString());
+        assertEquals("(a & b) U (b S true)", f.toString());
+        assertNull(g.getParent());
+    }
+
+}